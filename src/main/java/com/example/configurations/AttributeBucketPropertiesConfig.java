@@ -0,0 +1,18 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "attribute-buckets")
+public class AttributeBucketPropertiesConfig {
+
+    private Boolean enabled = false;
+
+    private Integer threshold = 2000;
+
+    private Integer bucketSize = 500;
+
+}
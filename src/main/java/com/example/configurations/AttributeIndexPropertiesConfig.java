@@ -0,0 +1,36 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "attribute-index")
+public class AttributeIndexPropertiesConfig {
+
+    private Boolean enabled = false;
+
+    private Duration interval = Duration.ofMinutes(5);
+
+    private Integer maxKeys = 1000;
+
+    private Double decay = 0.5;
+
+    private Double minFilters = 100.0;
+
+    private Double dropBelow = 10.0;
+
+    private Double maxSelectivity = 0.1;
+
+    private Integer sampleSize = 1000;
+
+    private Integer maxIndexes = 10;
+
+    private Integer maxBuildsPerCycle = 1;
+
+    private Duration minIndexAge = Duration.ofHours(1);
+
+}
@@ -0,0 +1,18 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "attribute-interning")
+public class AttributeInterningPropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private Integer maxEntries = 100_000;
+
+    private Integer maxValueLength = 64;
+
+}
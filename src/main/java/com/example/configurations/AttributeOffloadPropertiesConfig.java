@@ -0,0 +1,25 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "attribute-offload")
+public class AttributeOffloadPropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private DataSize threshold = DataSize.ofKilobytes(256);
+
+    private Duration collectInterval = Duration.ofMinutes(10);
+
+    private Duration collectGracePeriod = Duration.ofHours(1);
+
+    private Integer collectBatchSize = 1000;
+
+}
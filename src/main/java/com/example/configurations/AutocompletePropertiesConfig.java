@@ -0,0 +1,20 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "autocomplete")
+public class AutocompletePropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private Integer maxLimit = 50;
+
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+}
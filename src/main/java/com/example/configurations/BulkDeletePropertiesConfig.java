@@ -0,0 +1,24 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulk-delete")
+public class BulkDeletePropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private Integer batchSize = 200;
+
+    private Duration batchDelay = Duration.ofSeconds(1);
+
+    private Duration lease = Duration.ofMinutes(2);
+
+    private Integer maxAttempts = 5;
+
+}
@@ -0,0 +1,49 @@
+package com.example.configurations;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@AllArgsConstructor
+public class BulkheadConfig {
+
+    private final BulkheadPropertiesConfig properties;
+
+    @Bean
+    public ThreadPoolTaskExecutor searchBulkheadExecutor() {
+        return buildExecutor("bulkhead-search-", properties.getSearch());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor writeBulkheadExecutor() {
+        return buildExecutor("bulkhead-write-", properties.getWrite());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor readBulkheadExecutor() {
+        return buildExecutor("bulkhead-read-", properties.getRead());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamBulkheadExecutor() {
+        return buildExecutor("bulkhead-stream-", properties.getStream());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor searchFanOutExecutor() {
+        return buildExecutor("search-fan-out-", properties.getFanOut());
+    }
+
+    private ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix, BulkheadPropertiesConfig.Pool pool) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.getThreads());
+        executor.setMaxPoolSize(pool.getThreads());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setTaskDecorator(new ContextPropagationTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
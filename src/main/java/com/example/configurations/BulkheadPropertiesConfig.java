@@ -0,0 +1,39 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadPropertiesConfig {
+
+    private Integer retryAfterSeconds = 1;
+
+    private Pool search = new Pool(4, 50);
+
+    private Pool write = new Pool(8, 200);
+
+    private Pool read = new Pool(16, 500);
+
+    private Pool fanOut = new Pool(8, 100);
+
+    private Pool stream = new Pool(2, 0);
+
+    @Data
+    public static class Pool {
+
+        private Integer threads;
+
+        private Integer queueCapacity;
+
+        public Pool() {
+        }
+
+        public Pool(Integer threads, Integer queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
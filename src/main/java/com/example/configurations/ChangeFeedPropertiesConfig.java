@@ -0,0 +1,20 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "change-feed")
+public class ChangeFeedPropertiesConfig {
+
+    private Integer maxLimit = 1000;
+
+    private Duration safetyLag = Duration.ofSeconds(2);
+
+    private Boolean streamEnabled = false;
+
+}
@@ -0,0 +1,43 @@
+package com.example.configurations;
+
+import com.example.exceptions.GenericException;
+import com.example.utils.ConsistencyContext;
+import com.example.utils.Constants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public ConsistencyTokenFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var token = request.getHeader(Constants.X_CONSISTENCY_TOKEN);
+        try {
+            ConsistencyContext.current().setAfterClusterTime(ConsistencyContext.parseToken(token));
+        } catch (NumberFormatException e) {
+            exceptionResolver.resolveException(request, response, null, new GenericException(Constants.INVALID_CONSISTENCY_TOKEN + token));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistencyContext.clear();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.configurations;
+
+import com.example.utils.ConsistencyContext;
+import com.example.utils.RequestDeadline;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+public class ContextPropagationTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        var consistencyContext = ConsistencyContext.fork();
+        var deadline = RequestDeadline.current();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            var previousConsistencyContext = ConsistencyContext.current();
+            var previousDeadline = RequestDeadline.current();
+            setContext(context);
+            ConsistencyContext.set(consistencyContext);
+            RequestDeadline.set(deadline);
+            try {
+                runnable.run();
+            } finally {
+                setContext(previous);
+                ConsistencyContext.set(previousConsistencyContext);
+                RequestDeadline.set(previousDeadline);
+            }
+        };
+    }
+
+    private void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.configurations;
+
+import com.example.exceptions.DeadlineExceededException;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class DeadlineAsyncConfig implements WebMvcConfigurer, DeferredResultProcessingInterceptor {
+
+    private final Counter deadlineExceeded;
+
+    private final Counter cancelled;
+
+    public DeadlineAsyncConfig(MeterRegistry meterRegistry) {
+        this.deadlineExceeded = meterRegistry.counter(Constants.METRIC_DEADLINE_EXCEEDED);
+        this.cancelled = meterRegistry.counter(Constants.METRIC_REQUEST_CANCELLED);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerDeferredResultInterceptors(this);
+    }
+
+    @Override
+    public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        cancel(request);
+        deadlineExceeded.increment();
+        return true;
+    }
+
+    @Override
+    public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> deferredResult, Throwable t) {
+        cancel(request);
+        cancelled.increment();
+        return true;
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, DeferredResult<T> deferredResult, Object concurrentResult) {
+        if (concurrentResult instanceof Throwable throwable
+                && ExceptionUtils.indexOfType(throwable, DeadlineExceededException.class) >= 0
+                && !isCancelled(request)) {
+            deadlineExceeded.increment();
+        }
+    }
+
+    private void cancel(NativeWebRequest request) {
+        if (request.getAttribute(RequestDeadline.class.getName(), RequestAttributes.SCOPE_REQUEST) instanceof RequestDeadline deadline) {
+            deadline.cancel();
+        }
+    }
+
+    private boolean isCancelled(NativeWebRequest request) {
+        return request.getAttribute(RequestDeadline.class.getName(), RequestAttributes.SCOPE_REQUEST) instanceof RequestDeadline deadline
+                && deadline.isCancelled();
+    }
+}
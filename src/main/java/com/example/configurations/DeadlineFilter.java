@@ -0,0 +1,82 @@
+package com.example.configurations;
+
+import com.example.exceptions.GenericException;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final DeadlinePropertiesConfig properties;
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public DeadlineFilter(DeadlinePropertiesConfig properties,
+                          @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.properties = properties;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration timeout;
+        try {
+            timeout = resolveTimeout(request);
+        } catch (NumberFormatException e) {
+            exceptionResolver.resolveException(request, response, null,
+                    new GenericException(Constants.INVALID_REQUEST_TIMEOUT + request.getHeader(Constants.X_REQUEST_TIMEOUT)));
+            return;
+        }
+
+        if (timeout.isZero() || timeout.isNegative()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        var deadline = RequestDeadline.start(timeout);
+        request.setAttribute(RequestDeadline.class.getName(), deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.getEnabled();
+    }
+
+    private Duration resolveTimeout(HttpServletRequest request) {
+        var header = request.getHeader(Constants.X_REQUEST_TIMEOUT);
+        if (header != null && !header.isBlank()) {
+            var requested = Duration.ofMillis(Long.parseLong(header.strip()));
+            if (requested.isNegative() || requested.isZero()) {
+                throw new NumberFormatException(header);
+            }
+            return requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested;
+        }
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getEndpoints().entrySet().stream()
+                .filter(endpoint -> pathMatcher.match(endpoint.getKey(), path))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(properties.getDefaultTimeout());
+    }
+}
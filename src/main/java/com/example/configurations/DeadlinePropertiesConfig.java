@@ -0,0 +1,24 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "deadline")
+public class DeadlinePropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    private Duration maxTimeout = Duration.ofSeconds(25);
+
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+}
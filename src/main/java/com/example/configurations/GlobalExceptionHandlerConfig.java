@@ -5,6 +5,7 @@ package com.example.configurations;
 import com.example.exceptions.BusinessException;
 import com.example.exceptions.ExceptionResolver;
 import com.example.exceptions.NotFoundException;
+import com.example.exceptions.TooManyRequestsException;
 import com.example.utils.Constants;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -25,6 +26,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.io.IOException;
@@ -48,6 +50,13 @@ public class GlobalExceptionHandlerConfig {
         return getException(e.getHttpStatusCode(), e.getMessage(), e.getDescription(), request, "BusinessException");
     }
 
+    @ExceptionHandler(value = {TooManyRequestsException.class})
+    protected ResponseEntity<Object> handleException(TooManyRequestsException e, HttpServletRequest request) {
+        var responseHeaders = new HttpHeaders();
+        responseHeaders.set(Constants.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return getException(e.getHttpStatusCode(), e.getMessage(), e.getDescription(), request, "TooManyRequestsException", responseHeaders);
+    }
+
     @ExceptionHandler({BindException.class})
     public ResponseEntity<Object> handleException(BindException e, HttpServletRequest request) {
         String errors = e.getBindingResult().getAllErrors().stream()
@@ -113,9 +122,14 @@ public class GlobalExceptionHandlerConfig {
         return getException(HttpStatus.BAD_REQUEST, Constants.CONSTRAINT_VALIDATION_FAILED, fieldErrorDtos.toString(), request, "MethodArgumentNotValidException");
     }
 
+    @ExceptionHandler({AsyncRequestTimeoutException.class})
+    public ResponseEntity<Object> handleException(AsyncRequestTimeoutException e, HttpServletRequest request) {
+        return getException(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), Constants.ASYNC_REQUEST_TIMEOUT, request, "AsyncRequestTimeoutException");
+    }
+
     @ExceptionHandler({Throwable.class})
     public ResponseEntity<Object> handleException(Throwable e, HttpServletRequest request) {
-        if (e.getMessage().contains(Constants.DUPLICATION_CODE)) {
+        if (e.getMessage() != null && e.getMessage().contains(Constants.DUPLICATION_CODE)) {
                 return getException(HttpStatus.CONFLICT, HttpStatus.CONFLICT.getReasonPhrase(), Constants.DUPLICATION_DESCRIPTION, request, "Throwable");
         }
         return getException(HttpStatus.INTERNAL_SERVER_ERROR, ofNullable(e.getMessage()).orElse(e.toString()), ExceptionResolver.getRootException(e), request, "Throwable");
@@ -137,6 +151,10 @@ public class GlobalExceptionHandlerConfig {
     }
 
     private ResponseEntity<Object> getException(HttpStatus httpStatus, String message, String description, HttpServletRequest path, String method) {
+        return getException(httpStatus, message, description, path, method, new HttpHeaders());
+    }
+
+    private ResponseEntity<Object> getException(HttpStatus httpStatus, String message, String description, HttpServletRequest path, String method, HttpHeaders responseHeaders) {
         BusinessException exception = BusinessException.builder()
                 .httpStatusCode(httpStatus)
                 .timestamp(getCurrentTimestamp())
@@ -146,7 +164,6 @@ public class GlobalExceptionHandlerConfig {
                 .path(path.getRequestURI())
                 .build();
 
-        var responseHeaders = new HttpHeaders();
         responseHeaders.set(Constants.X_RD_TRACEID, getTraceID());
 
         if (HttpStatus.INTERNAL_SERVER_ERROR.value() == exception.getHttpStatusCode().value()) {
@@ -0,0 +1,18 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "mongodb.routing")
+public class MongoRoutingPropertiesConfig {
+
+    private String search = "primary";
+
+    private String findById = "primary";
+
+    private Boolean causalConsistency = false;
+
+}
@@ -0,0 +1,32 @@
+package com.example.configurations;
+
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+import com.example.domains.dto.ProductDTO;
+import com.example.domains.dto.QueryShapeReport;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ProductRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ProductRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String PRODUCT_MAPPER_IMPL = "com.example.mappers.ProductMapperImpl";
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            List.of(Product.class, Attribute.class, ProductDTO.class, QueryShapeReport.class)
+                    .forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+            hints.reflection().registerType(TypeReference.of(PRODUCT_MAPPER_IMPL),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "patch-coalescing")
+public class PatchCoalescingPropertiesConfig {
+
+    private Boolean enabled = false;
+
+    private Duration window = Duration.ofMillis(20);
+
+    private Integer maxBatchSize = 100;
+
+    private Integer maxPending = 1000;
+
+}
@@ -0,0 +1,35 @@
+package com.example.configurations;
+
+import com.example.utils.Constants;
+import com.example.utils.Profiler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+
+public class ProfiledJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public ProfiledJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try {
+            Profiler.run(Constants.PROFILING_LAYER_SERIALIZATION, object.getClass().getSimpleName(), () -> {
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.configurations;
+
+import com.example.utils.Constants;
+import com.example.utils.OperationEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "profiling", name = "enabled", havingValue = "true")
+public class ProfilingAspect {
+
+    @Around("execution(public * com.example.services.ProductService.*(..))")
+    public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+        var event = new OperationEvent(Constants.PROFILING_LAYER_SERVICE, joinPoint.getSignature().getName());
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.commit();
+        }
+    }
+}
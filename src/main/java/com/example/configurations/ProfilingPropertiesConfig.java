@@ -0,0 +1,24 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "profiling")
+public class ProfilingPropertiesConfig {
+
+    private Boolean enabled = false;
+
+    private String settings = "profile";
+
+    private Duration defaultDuration = Duration.ofSeconds(30);
+
+    private Duration maxDuration = Duration.ofMinutes(2);
+
+    private Integer topFrames = 20;
+
+}
@@ -0,0 +1,20 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "query-advisor")
+public class QueryAdvisorPropertiesConfig {
+
+    private Integer maxShapes = 100;
+
+    private Integer sampleEvery = 20;
+
+    private Double examinedRatioThreshold = 10.0;
+
+    private Boolean allowIndexCreation = false;
+
+}
@@ -0,0 +1,25 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search-cache")
+public class SearchCachePropertiesConfig {
+
+    private Boolean enabled = true;
+
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    private Duration maxStale = Duration.ofSeconds(60);
+
+    private Boolean sharedEpoch = true;
+
+    private Duration epochRefreshInterval = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,16 @@
+package com.example.configurations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search-fan-out")
+public class SearchFanOutPropertiesConfig {
+
+    private Boolean enabled = false;
+
+    private Integer maxWindow = 5000;
+
+}
@@ -0,0 +1,53 @@
+package com.example.configurations;
+
+import com.example.utils.Constants;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+@Component
+public class StartupMetricsListener {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final String VM_RSS = "VmRSS:";
+
+    private final boolean trainingRun;
+
+    public StartupMetricsListener(MeterRegistry meterRegistry, @Value("${startup.training-run:false}") boolean trainingRun) {
+        this.trainingRun = trainingRun;
+        Gauge.builder(Constants.METRIC_PROCESS_RSS, StartupMetricsListener::residentSetSize).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE + Constants.LOG_KEY_DESCRIPTION, "onApplicationReady",
+                Constants.STARTUP_COMPLETED, String.format(Constants.STARTUP_METRICS, event.getTimeTaken().toMillis(),
+                        ManagementFactory.getRuntimeMXBean().getUptime(), residentSetSize() / (1024 * 1024)));
+
+        if (trainingRun) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    private static double residentSetSize() {
+        try (var lines = Files.lines(PROC_STATUS)) {
+            return lines.filter(line -> line.startsWith(VM_RSS))
+                    .findFirst()
+                    .map(line -> Double.parseDouble(line.substring(VM_RSS.length()).replace("kB", "").trim()) * 1024)
+                    .orElse(Double.NaN);
+        } catch (IOException | RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
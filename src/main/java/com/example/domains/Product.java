@@ -7,8 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
-
-import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.TextIndexed;
@@ -26,6 +25,9 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "products")
+@CompoundIndex(name = "updatedAt_id", def = "{'updatedAt': 1, '_id': 1}")
+@CompoundIndex(name = "description_collation", def = "{'description': 1}", collation = "{'locale': 'pt', 'strength': 1}")
+@CompoundIndex(name = "attributes_valueRef", def = "{'attributes.valueRef': 1}", sparse = true)
 public class Product implements Serializable {
 
     @Serial
@@ -39,10 +41,12 @@ public class Product implements Serializable {
 
     private List<Attribute> attributes;
 
+    private Integer attributeBuckets;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
-    @LastModifiedDate
+    // Stamped by the server ($currentDate) in the persist upsert so the change feed never orders by application clocks.
     private LocalDateTime updatedAt;
 
 }
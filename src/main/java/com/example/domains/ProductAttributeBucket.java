@@ -0,0 +1,37 @@
+package com.example.domains;
+
+import com.example.domains.dto.Attribute;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "product_attribute_buckets")
+@CompoundIndex(name = "productId_bucket", def = "{'productId': 1, 'bucket': 1}", unique = true)
+@CompoundIndex(name = "attributes_valueRef", def = "{'attributes.valueRef': 1}", sparse = true)
+public class ProductAttributeBucket implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5713387004125384251L;
+
+    @Id
+    private String id;
+
+    private String productId;
+
+    private Integer bucket;
+
+    private List<Attribute> attributes;
+
+}
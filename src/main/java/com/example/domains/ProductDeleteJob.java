@@ -0,0 +1,60 @@
+package com.example.domains;
+
+import com.example.domains.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "product_delete_jobs")
+@CompoundIndex(name = "status_lockedUntil", def = "{'status': 1, 'lockedUntil': 1}")
+public class ProductDeleteJob implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2981736505216345104L;
+
+    @Id
+    private String id;
+
+    private String keyword;
+
+    private JobStatus status;
+
+    private Long total;
+
+    private Long deleted;
+
+    private Long failed;
+
+    private String lastId;
+
+    private String error;
+
+    private Integer attempts;
+
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,33 @@
+package com.example.domains;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "product_tombstones")
+@CompoundIndex(name = "deletedAt_id", def = "{'deletedAt': 1, '_id': 1}")
+public class ProductTombstone implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3019533915623186203L;
+
+    @Id
+    private String id;
+
+    @Indexed(name = "deletedAt_ttl", expireAfter = "30d")
+    private LocalDateTime deletedAt;
+
+}
@@ -0,0 +1,28 @@
+package com.example.domains;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "write_epochs")
+public class WriteEpoch implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2964183307563254170L;
+
+    @Id
+    private String id;
+
+    private Long epoch;
+
+}
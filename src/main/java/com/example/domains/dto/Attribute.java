@@ -1,5 +1,7 @@
 package com.example.domains.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +14,17 @@ import lombok.NoArgsConstructor;
 public class Attribute {
     private String key;
     private Object value;
-}
\ No newline at end of file
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String valueRef;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long valueSize;
+
+    public Attribute(String key, Object value) {
+        this.key = key;
+        this.value = value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.domains.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeIndexReport {
+    private String key;
+    private Long filters;
+    private Double score;
+    private Double coverage;
+    private Double selectivity;
+    private String indexName;
+    private Long indexOps;
+    private Long indexSizeBytes;
+    private Double avgMillisWithoutIndex;
+    private Double avgMillisWithIndex;
+}
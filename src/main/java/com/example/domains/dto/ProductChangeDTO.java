@@ -0,0 +1,36 @@
+package com.example.domains.dto;
+
+import com.example.domains.enums.ChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6240381977462085519L;
+
+    @Schema(defaultValue = "Tipo da alteração", example = "UPSERT")
+    private ChangeType type;
+
+    @Schema(defaultValue = "Identificador de um produto", example = "648f0e313214234e611ecbdb")
+    private String id;
+
+    @Schema(defaultValue = "Data da alteração")
+    private LocalDateTime changedAt;
+
+    @Schema(defaultValue = "Estado atual do produto, ausente em remoções")
+    private ProductDTO product;
+}
@@ -0,0 +1,28 @@
+package com.example.domains.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1517325640167005349L;
+
+    private List<ProductChangeDTO> changes;
+
+    @Schema(defaultValue = "Token para retomar a leitura a partir da última alteração retornada")
+    private String nextToken;
+
+    private Boolean hasMore;
+}
@@ -0,0 +1,67 @@
+package com.example.domains.dto;
+
+import com.example.domains.enums.JobStatus;
+import com.example.utils.Constants;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductDeleteJobDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6628893420157190824L;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Identificador do job de remoção", example = "6650a1c83214234e611ecbdb")
+    private String id;
+
+    @NotBlank(message = Constants.KEYWORD_NOT_NULL)
+    @Schema(defaultValue = "Filtro de busca dos produtos a remover, com a mesma semântica de /products/search", example = "Mustela")
+    private String keyword;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Situação do job", example = "RUNNING")
+    private JobStatus status;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Quantidade de produtos encontrados no início do job")
+    private Long total;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Quantidade de produtos removidos")
+    private Long deleted;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Quantidade de produtos que falharam na remoção")
+    private Long failed;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(defaultValue = "Percentual concluído", example = "42.5")
+    private Double progress;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String error;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime startedAt;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime finishedAt;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.example.domains.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2409358711352940611L;
+
+    @Schema(defaultValue = "Identificador de um produto", example = "648f0e313214234e611ecbdb")
+    private String id;
+
+    @Schema(defaultValue = "Descrição de um produto", example = "Hidratante Mustela Stelatopia Pele Ressecada e Atópica 500ml")
+    private String description;
+}
@@ -0,0 +1,48 @@
+package com.example.domains.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfilingSummary {
+    private Long recordingId;
+    private String state;
+    private Instant startedAt;
+    private Long durationSeconds;
+    private List<Timing> layers;
+    private List<Timing> operations;
+    private List<FrameSample> topAllocationFrames;
+    private List<FrameSample> topCpuFrames;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Timing {
+        private String layer;
+        private String operation;
+        private Long count;
+        private Double totalMillis;
+        private Double maxMillis;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FrameSample {
+        private String frame;
+        private Long value;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.domains.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryShapeReport {
+    private String shape;
+    private String operation;
+    private Long executions;
+    private List<String> stages;
+    private List<String> indexesUsed;
+    private Long keysExamined;
+    private Long docsExamined;
+    private Long returned;
+    private Long executionTimeMillis;
+    private List<String> warnings;
+    private List<Map<String, Integer>> suggestedIndexes;
+}
@@ -0,0 +1,8 @@
+package com.example.domains.enums;
+
+public enum Bulkhead {
+    SEARCH,
+    WRITE,
+    READ,
+    STREAM
+}
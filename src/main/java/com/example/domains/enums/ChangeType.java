@@ -0,0 +1,6 @@
+package com.example.domains.enums;
+
+public enum ChangeType {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,34 @@
+package com.example.endpoints;
+
+import com.example.domains.dto.AttributeIndexReport;
+import com.example.services.AttributeIndexService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+@Endpoint(id = "attributeindexes")
+public class AttributeIndexEndpoint {
+
+    private final AttributeIndexService attributeIndexService;
+
+    @ReadOperation
+    public List<AttributeIndexReport> report() {
+        return attributeIndexService.report();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<List<String>> reconcile() {
+        if (!attributeIndexService.isManaged()) {
+            return new WebEndpointResponse<>(List.of(), HttpStatus.FORBIDDEN.value());
+        }
+        return new WebEndpointResponse<>(attributeIndexService.reconcile());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.endpoints;
+
+import com.example.domains.dto.ProfilingSummary;
+import com.example.services.ProfilingService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@AllArgsConstructor
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ProfilingService profilingService;
+
+    @ReadOperation
+    public ProfilingSummary summary() {
+        return profilingService.status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Selector long id) {
+        return profilingService.recording(id)
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(HttpStatus.NOT_FOUND.value()));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<ProfilingSummary> start(@Nullable Long durationSeconds) {
+        if (!profilingService.isEnabled()) {
+            return new WebEndpointResponse<>(HttpStatus.FORBIDDEN.value());
+        }
+        var duration = durationSeconds == null ? null : Duration.ofSeconds(durationSeconds);
+        return new WebEndpointResponse<>(profilingService.start(duration));
+    }
+}
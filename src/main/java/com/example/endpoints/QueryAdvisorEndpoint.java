@@ -0,0 +1,34 @@
+package com.example.endpoints;
+
+import com.example.domains.dto.QueryShapeReport;
+import com.example.services.QueryAdvisorService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+@Endpoint(id = "queryadvisor")
+public class QueryAdvisorEndpoint {
+
+    private final QueryAdvisorService queryAdvisorService;
+
+    @ReadOperation
+    public List<QueryShapeReport> report() {
+        return queryAdvisorService.analyze();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<List<String>> createSuggestedIndexes() {
+        if (!queryAdvisorService.isIndexCreationAllowed()) {
+            return new WebEndpointResponse<>(List.of(), HttpStatus.FORBIDDEN.value());
+        }
+        return new WebEndpointResponse<>(queryAdvisorService.createSuggestedIndexes());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+public class DeadlineExceededException extends BusinessException {
+	@Serial
+	private static final long serialVersionUID = -4620385310746812371L;
+
+	public DeadlineExceededException(String object) {
+		super.setHttpStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+		super.setTimestamp(super.getTimestamp());
+		super.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+		super.setMessage(HttpStatus.GATEWAY_TIMEOUT.getReasonPhrase());
+		super.setDescription(object);
+	}
+}
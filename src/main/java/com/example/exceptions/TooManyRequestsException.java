@@ -0,0 +1,23 @@
+package com.example.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+@Getter
+public class TooManyRequestsException extends BusinessException {
+    @Serial
+    private static final long serialVersionUID = -2318046357721540618L;
+
+    private final Integer retryAfterSeconds;
+
+    public TooManyRequestsException(String object, Integer retryAfterSeconds) {
+        super.setHttpStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        super.setTimestamp(super.getTimestamp());
+        super.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        super.setMessage(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        super.setDescription(object);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
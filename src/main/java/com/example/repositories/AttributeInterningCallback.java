@@ -0,0 +1,26 @@
+package com.example.repositories;
+
+import com.example.domains.Product;
+import com.example.domains.ProductAttributeBucket;
+import com.example.services.AttributeInterningService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AttributeInterningCallback implements AfterConvertCallback<Object> {
+
+    private final AttributeInterningService attributeInterning;
+
+    @Override
+    public Object onAfterConvert(Object entity, Document document, String collection) {
+        if (entity instanceof Product product) {
+            attributeInterning.intern(product.getAttributes());
+        } else if (entity instanceof ProductAttributeBucket bucket) {
+            attributeInterning.intern(bucket.getAttributes());
+        }
+        return entity;
+    }
+}
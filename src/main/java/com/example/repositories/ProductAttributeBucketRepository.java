@@ -0,0 +1,20 @@
+package com.example.repositories;
+
+import com.example.domains.ProductAttributeBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductAttributeBucketRepository extends MongoRepository<ProductAttributeBucket, String> {
+
+    List<ProductAttributeBucket> findByProductIdInOrderByBucketAsc(Collection<String> productIds);
+
+    List<ProductAttributeBucket> findByProductIdAndBucketInOrderByBucketAsc(String productId, Collection<Integer> buckets);
+
+    void deleteByProductId(String productId);
+
+    void deleteByProductIdAndBucketGreaterThanEqual(String productId, Integer bucket);
+}
@@ -0,0 +1,9 @@
+package com.example.repositories;
+
+import com.example.domains.ProductDeleteJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductDeleteJobRepository extends MongoRepository<ProductDeleteJob, String> {
+}
@@ -1,10 +1,45 @@
 package com.example.repositories;
 
 import com.example.domains.Product;
+import com.example.domains.ProductTombstone;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductRepositoryCustom {
     Page<Product> findByKeyword(String keyword, Pageable pageable);
 
+    Page<Product> findByAttribute(String key, String value, Pageable pageable);
+
+    void streamByKeyword(String keyword, Sort sort, Consumer<Product> consumer);
+
+    List<Product> findByKeywordAfter(String keyword, String afterId, int limit);
+
+    long countByKeyword(String keyword);
+
+    List<Product> findByDescriptionPrefix(String prefix, int limit);
+
+    void streamDescriptions(LocalDateTime updatedSince, Consumer<Product> consumer);
+
+    List<Product> findChangedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit);
+
+    List<ProductTombstone> findDeletedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit);
+
+    Optional<Product> findOne(String id);
+
+    Optional<Product> findForUpdate(String id);
+
+    Product persist(Product product);
+
+    void remove(String id);
+
+    void tombstone(String id);
+
+    LocalDateTime currentTime();
+
 }
@@ -1,40 +1,307 @@
 package com.example.repositories;
 
+import com.example.configurations.SearchFanOutPropertiesConfig;
 import com.example.domains.Product;
-import lombok.AllArgsConstructor;
+import com.example.domains.ProductAttributeBucket;
+import com.example.domains.ProductTombstone;
+import com.example.domains.enums.ReadOperation;
+import com.example.utils.RequestDeadline;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Collation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import static com.example.mappers.ProductMapper.INSTANCE;
 import static com.example.utils.Constants.BATCH_SIZE;
+import static com.example.utils.Constants.COLLATION_LOCALE;
 import static com.example.utils.Constants.KEY_ATTRIBUTES;
+import static com.example.utils.Constants.KEY_ATTRIBUTE_BUCKETS;
 import static com.example.utils.Constants.KEY_VALUE;
 import static com.example.utils.Constants.KEY_NAME;
+import static com.example.utils.Constants.KEY_KEY;
 import static com.example.utils.Constants.OPTION_I;
 import static com.example.utils.Constants.KEY_ID;
+import static com.example.utils.Constants.KEY_PRODUCT_ID;
 import static com.example.utils.Constants.KEY_DESCRIPTION;
 import static com.example.utils.Constants.KEY_CREATED_AT;
+import static com.example.utils.Constants.KEY_CLASS;
 import static com.example.utils.Constants.KEY_UPDATED_AT;
+import static com.example.utils.Constants.KEY_DELETED_AT;
 import static com.example.utils.Constants.ONE;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Repository
-@AllArgsConstructor
 public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
 
-    private final MongoTemplate mongoTemplate;
+    private static final Map<String, SortKey<?>> SORTABLE = Map.of(
+            KEY_ID, new SortKey<>(Product::getId),
+            KEY_DESCRIPTION, new SortKey<>(Product::getDescription),
+            KEY_CREATED_AT, new SortKey<>(Product::getCreatedAt),
+            KEY_UPDATED_AT, new SortKey<>(Product::getUpdatedAt)
+    );
+
+    private final RoutingMongoOperations mongoOperations;
+
+    private final QueryShapeRecorder queryShapeRecorder;
+
+    private final SearchFanOutPropertiesConfig fanOutProperties;
+
+    private final ThreadPoolTaskExecutor fanOutExecutor;
+
+    public ProductRepositoryCustomImpl(RoutingMongoOperations mongoOperations,
+                                       QueryShapeRecorder queryShapeRecorder,
+                                       SearchFanOutPropertiesConfig fanOutProperties,
+                                       @Qualifier("searchFanOutExecutor") ThreadPoolTaskExecutor fanOutExecutor) {
+        this.mongoOperations = mongoOperations;
+        this.queryShapeRecorder = queryShapeRecorder;
+        this.fanOutProperties = fanOutProperties;
+        this.fanOutExecutor = fanOutExecutor;
+    }
 
     @Override
     public Page<Product> findByKeyword(String keyword, Pageable pageable) {
-        Criteria criteria = new Criteria();
+        var branches = mongoOperations.read(ReadOperation.SEARCH, operations -> keywordBranches(keyword, operations));
+        if (canFanOut(branches, pageable)) {
+            var page = fanOut(branches, pageable);
+            if (page != null) {
+                return new PageImpl<>(page, pageable, page.size());
+            }
+        }
+        var query = new Query(new Criteria().orOperator(branches)).with(pageable).cursorBatchSize(BATCH_SIZE);
+        queryShapeRecorder.record("findByKeyword", query);
+        var page = mongoOperations.read(ReadOperation.SEARCH, operations -> operations.find(withDeadline(query), Product.class));
+        return new PageImpl<>(page, pageable, page.size());
+    }
+
+    @Override
+    public Page<Product> findByAttribute(String key, String value, Pageable pageable) {
+        var element = Criteria.where(KEY_KEY).is(key);
+        if (value != null) {
+            element.and(KEY_VALUE).in(attributeValues(value));
+        }
+        var attribute = Criteria.where(KEY_ATTRIBUTES + "." + KEY_KEY).is(key).and(KEY_ATTRIBUTES).elemMatch(element);
+        var page = mongoOperations.read(ReadOperation.SEARCH, operations -> {
+            var bucketed = bucketedProductIds(operations, attribute);
+            var criteria = bucketed.isEmpty() ? attribute : new Criteria().orOperator(attribute, Criteria.where(KEY_ID).in(bucketed));
+            var query = new Query(criteria).with(pageable).cursorBatchSize(BATCH_SIZE);
+            queryShapeRecorder.record("findByAttribute", query);
+            return operations.find(withDeadline(query), Product.class);
+        });
+        return new PageImpl<>(page, pageable, page.size());
+    }
+
+    @Override
+    public void streamByKeyword(String keyword, Sort sort, Consumer<Product> consumer) {
+        mongoOperations.read(ReadOperation.SEARCH, operations -> {
+            var query = new Query(keywordCriteria(keyword, operations)).with(sort).cursorBatchSize(BATCH_SIZE);
+            queryShapeRecorder.record("streamByKeyword", query);
+            var deadline = RequestDeadline.current();
+            try (var products = operations.stream(withDeadline(query), Product.class)) {
+                products.forEach(product -> {
+                    deadline.check();
+                    consumer.accept(product);
+                });
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Product> findByKeywordAfter(String keyword, String afterId, int limit) {
+        var keywordCriteria = keywordCriteria(keyword, mongoOperations.primary());
+        var criteria = afterId == null
+                ? keywordCriteria
+                : new Criteria().andOperator(keywordCriteria, Criteria.where(KEY_ID).gt(afterId));
+        var query = new Query(criteria).with(Sort.by(KEY_ID)).limit(limit);
+        query.fields().include(KEY_ID, KEY_DESCRIPTION, KEY_ATTRIBUTES, KEY_ATTRIBUTE_BUCKETS);
+        queryShapeRecorder.record("findByKeywordAfter", query);
+        return mongoOperations.primary().find(withDeadline(query), Product.class);
+    }
+
+    @Override
+    public long countByKeyword(String keyword) {
+        var query = new Query(keywordCriteria(keyword, mongoOperations.primary()));
+        queryShapeRecorder.record("countByKeyword", query);
+        return mongoOperations.primary().count(withDeadline(query), Product.class);
+    }
+
+    @Override
+    public List<Product> findByDescriptionPrefix(String prefix, int limit) {
+        var query = new Query(Criteria.where(KEY_DESCRIPTION).gte(prefix).lt(prefix + Character.MAX_VALUE))
+                .collation(Collation.of(COLLATION_LOCALE).strength(Collation.ComparisonLevel.primary()))
+                .with(Sort.by(KEY_DESCRIPTION))
+                .limit(limit);
+        query.fields().include(KEY_ID, KEY_DESCRIPTION);
+        queryShapeRecorder.record("findByDescriptionPrefix", query);
+        return mongoOperations.read(ReadOperation.SEARCH, operations -> operations.find(withDeadline(query), Product.class));
+    }
+
+    @Override
+    public void streamDescriptions(LocalDateTime updatedSince, Consumer<Product> consumer) {
+        var query = updatedSince == null ? new Query() : new Query(Criteria.where(KEY_UPDATED_AT).gte(updatedSince));
+        query.fields().include(KEY_ID, KEY_DESCRIPTION, KEY_UPDATED_AT);
+        query.cursorBatchSize(BATCH_SIZE);
+        try (var products = mongoOperations.primary().stream(query, Product.class)) {
+            products.forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<Product> findChangedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        var query = changedSinceQuery(KEY_UPDATED_AT, since, afterId, until, limit);
+        queryShapeRecorder.record("findChangedSince", query);
+        return mongoOperations.primary().find(withDeadline(query), Product.class);
+    }
+
+    @Override
+    public List<ProductTombstone> findDeletedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        var query = changedSinceQuery(KEY_DELETED_AT, since, afterId, until, limit);
+        return mongoOperations.primary().find(withDeadline(query), ProductTombstone.class);
+    }
+
+    private Query changedSinceQuery(String field, LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        var criteria = Criteria.where(field).lt(until);
+        if (since != null) {
+            criteria.orOperator(
+                    Criteria.where(field).gt(since),
+                    new Criteria().andOperator(Criteria.where(field).is(since), Criteria.where(KEY_ID).gt(afterId))
+            );
+        }
+        return new Query(criteria)
+                .with(Sort.by(field, KEY_ID))
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, BATCH_SIZE));
+    }
+
+    private boolean canFanOut(List<Criteria> branches, Pageable pageable) {
+        return Boolean.TRUE.equals(fanOutProperties.getEnabled())
+                && branches.size() > ONE
+                && pageable.isPaged()
+                && pageable.getOffset() + pageable.getPageSize() <= fanOutProperties.getMaxWindow()
+                && pageable.getSort().stream().allMatch(order -> SORTABLE.containsKey(order.getProperty()) && !order.isIgnoreCase());
+    }
+
+    // Null when the fan-out executor is saturated, so the caller falls back to the single $or query.
+    private List<Product> fanOut(List<Criteria> branches, Pageable pageable) {
+        var sort = pageable.getSort().getOrderFor(KEY_ID) == null ? pageable.getSort().and(Sort.by(KEY_ID)) : pageable.getSort();
+        var window = (int) (pageable.getOffset() + pageable.getPageSize());
+        var futures = new ArrayList<CompletableFuture<List<Product>>>(branches.size());
+        try {
+            for (var branch : branches) {
+                var query = new Query(branch).with(sort).limit(window).cursorBatchSize(Math.min(window, BATCH_SIZE));
+                queryShapeRecorder.record("findByKeyword.branch", query);
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> mongoOperations.read(ReadOperation.SEARCH, operations -> operations.find(withDeadline(query), Product.class)),
+                        fanOutExecutor));
+            }
+        } catch (TaskRejectedException e) {
+            futures.forEach(future -> future.cancel(true));
+            return null;
+        }
+
+        var results = new ArrayList<List<Product>>(futures.size());
+        try {
+            futures.forEach(future -> results.add(future.join()));
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return merge(results, comparator(sort), pageable.getOffset(), pageable.getPageSize());
+    }
+
+    static List<Product> merge(List<List<Product>> results, Comparator<Product> comparator, long offset, int size) {
+        record Head(Product product, Iterator<Product> rest) {
+        }
+        var heads = new PriorityQueue<Head>(Math.max(ONE, results.size()), Comparator.comparing(Head::product, comparator));
+        results.stream().map(List::iterator).filter(Iterator::hasNext).forEach(it -> heads.add(new Head(it.next(), it)));
+
+        var seen = new HashSet<String>();
+        var page = new ArrayList<Product>(size);
+        long skipped = 0;
+        while (!heads.isEmpty() && page.size() < size) {
+            var head = heads.poll();
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+            if (!seen.add(head.product().getId())) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(head.product());
+            }
+        }
+        return page;
+    }
+
+    // Same order as MongoDB sorts the branches: missing values first ascending, last descending.
+    static Comparator<Product> comparator(Sort sort) {
+        Comparator<Product> comparator = (left, right) -> 0;
+        for (var order : sort) {
+            comparator = comparator.thenComparing(SORTABLE.get(order.getProperty()).comparator(order.isAscending()));
+        }
+        return comparator;
+    }
+
+    private List<Object> attributeValues(String value) {
+        if (INSTANCE.isInteger(value)) {
+            return List.of(value, Integer.valueOf(value), Double.valueOf(value));
+        }
+        if (INSTANCE.isDouble(value)) {
+            return List.of(value, Double.valueOf(value));
+        }
+        return List.of(value);
+    }
+
+    private Query withDeadline(Query query) {
+        var maxTimeMillis = RequestDeadline.current().check();
+        return maxTimeMillis == 0 ? query : query.maxTimeMsec(maxTimeMillis);
+    }
+
+    private Criteria keywordCriteria(String keyword, MongoOperations operations) {
+        return new Criteria().orOperator(keywordBranches(keyword, operations));
+    }
+
+    // Bucketed products keep their attributes in product_attribute_buckets, so matches there are mapped back to product ids.
+    private List<String> bucketedProductIds(MongoOperations operations, Criteria attributes) {
+        var query = new Query(attributes);
+        queryShapeRecorder.record("bucketedProductIds", query);
+        return operations.findDistinct(withDeadline(query), KEY_PRODUCT_ID, ProductAttributeBucket.class, String.class);
+    }
+
+    private List<Criteria> keywordBranches(String keyword, MongoOperations operations) {
         List<Criteria> attributes = new ArrayList<>();
 
         if (INSTANCE.isInteger(keyword)) {
@@ -66,6 +333,11 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
             );
         }
 
+        var bucketed = bucketedProductIds(operations, new Criteria().orOperator(new ArrayList<>(attributes)));
+        if (!bucketed.isEmpty()) {
+            attributes.add(Criteria.where(KEY_ID).in(bucketed));
+        }
+
         attributes.add(
                 Criteria.where(KEY_ID).is(keyword)
         );
@@ -85,8 +357,79 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
             ));
         }
 
-        criteria.orOperator(attributes.toArray(new Criteria[0]));
-        var page = mongoTemplate.find(new Query(criteria).with(pageable).cursorBatchSize(BATCH_SIZE), Product.class);
-        return new PageImpl<>(page, pageable, page.size());
+        return attributes;
+    }
+
+    @Override
+    public Optional<Product> findOne(String id) {
+        var query = new Query(Criteria.where(KEY_ID).is(id));
+        queryShapeRecorder.record("findOne", query);
+        return Optional.ofNullable(mongoOperations.read(ReadOperation.FIND_BY_ID, operations -> operations.findOne(withDeadline(query), Product.class)));
+    }
+
+    @Override
+    public Optional<Product> findForUpdate(String id) {
+        var query = new Query(Criteria.where(KEY_ID).is(id));
+        return Optional.ofNullable(mongoOperations.write(operations -> operations.findOne(withDeadline(query), Product.class)));
+    }
+
+    @Override
+    public Product persist(Product product) {
+        return mongoOperations.write(operations -> {
+            if (product.getId() == null) {
+                product.setId(ObjectId.get().toHexString());
+            }
+            // One upsert per write: the entity becomes $set/$unset and the server stamps updatedAt in the same operation.
+            var document = new Document();
+            operations.getConverter().write(product, document);
+            var update = new Update().currentDate(KEY_UPDATED_AT);
+            operations.getConverter().getMappingContext().getRequiredPersistentEntity(Product.class).forEach(property -> {
+                var field = property.getFieldName();
+                if (property.isIdProperty() || field.equals(KEY_UPDATED_AT) || field.equals(KEY_CREATED_AT)) {
+                    return;
+                }
+                if (document.containsKey(field)) {
+                    update.set(field, document.get(field));
+                } else {
+                    update.unset(field);
+                }
+            });
+            if (document.containsKey(KEY_CLASS)) {
+                update.set(KEY_CLASS, document.get(KEY_CLASS));
+            }
+            update.setOnInsert(KEY_CREATED_AT, product.getCreatedAt() != null ? product.getCreatedAt() : LocalDateTime.now());
+            var query = new Query(Criteria.where(KEY_ID).is(product.getId()));
+            return operations.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Product.class);
+        });
+    }
+
+    @Override
+    public void remove(String id) {
+        var query = new Query(Criteria.where(KEY_ID).is(id));
+        queryShapeRecorder.record("remove", query);
+        mongoOperations.write(operations -> operations.remove(query, Product.class));
+    }
+
+    @Override
+    public void tombstone(String id) {
+        var query = new Query(Criteria.where(KEY_ID).is(id));
+        mongoOperations.write(operations -> operations.upsert(query, new Update().currentDate(KEY_DELETED_AT), ProductTombstone.class));
+    }
+
+    @Override
+    public LocalDateTime currentTime() {
+        var hello = mongoOperations.primary().executeCommand(new Document("hello", ONE));
+        return LocalDateTime.ofInstant(hello.getDate("localTime").toInstant(), ZoneId.systemDefault()).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private record SortKey<T extends Comparable<? super T>>(Function<Product, T> extractor) {
+
+        Comparator<Product> comparator(boolean ascending) {
+            Comparator<T> values = ascending
+                    ? Comparator.nullsFirst(Comparator.<T>naturalOrder())
+                    : Comparator.nullsLast(Comparator.<T>reverseOrder());
+            return Comparator.comparing(extractor, values);
+        }
     }
 }
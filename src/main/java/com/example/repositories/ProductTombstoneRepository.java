@@ -0,0 +1,14 @@
+package com.example.repositories;
+
+import com.example.domains.ProductTombstone;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends MongoRepository<ProductTombstone, String> {
+
+    List<ProductTombstone> findByDeletedAtGreaterThanEqual(LocalDateTime deletedAt);
+}
@@ -0,0 +1,110 @@
+package com.example.repositories;
+
+import com.example.configurations.QueryAdvisorPropertiesConfig;
+import com.example.domains.Product;
+import lombok.Getter;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+@Component
+public class QueryShapeRecorder {
+
+    private static final String PLACEHOLDER = "?";
+
+    private final QueryAdvisorPropertiesConfig properties;
+
+    private final QueryMapper queryMapper;
+
+    private final MongoPersistentEntity<?> entity;
+
+    private final ConcurrentMap<String, QuerySample> samples = new ConcurrentHashMap<>();
+
+    public QueryShapeRecorder(QueryAdvisorPropertiesConfig properties, MongoTemplate mongoTemplate) {
+        this.properties = properties;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Product.class);
+    }
+
+    // Only one in sampleEvery queries is mapped and rendered; counts are scaled back up.
+    public void record(String operation, Query query) {
+        int sampleEvery = Math.max(properties.getSampleEvery(), 1);
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return;
+        }
+        var filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        var sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        var shape = operation + " " + ((Document) toShape(filter)).toJson() + " sort " + sort.keySet();
+
+        var sample = samples.get(shape);
+        if (sample == null) {
+            if (samples.size() >= properties.getMaxShapes()) {
+                return;
+            }
+            sample = samples.computeIfAbsent(shape, key -> new QuerySample(key, operation, filter, sort, query.getLimit()));
+        }
+        sample.getCount().addAndGet(sampleEvery);
+    }
+
+    public Collection<QuerySample> getSamples() {
+        return List.copyOf(samples.values());
+    }
+
+    public void clear() {
+        samples.clear();
+    }
+
+    private Object toShape(Object value) {
+        if (value instanceof Document document) {
+            var shape = new Document();
+            document.forEach((key, nested) -> shape.put(key, toShape(nested)));
+            return shape;
+        }
+        if (value instanceof Collection<?> collection) {
+            var shape = new ArrayList<>();
+            collection.forEach(item -> shape.add(toShape(item)));
+            return shape;
+        }
+        if (value instanceof Pattern || value instanceof BsonRegularExpression) {
+            return "/" + PLACEHOLDER + "/";
+        }
+        return PLACEHOLDER;
+    }
+
+    @Getter
+    public static class QuerySample {
+
+        private final String shape;
+
+        private final String operation;
+
+        private final Document filter;
+
+        private final Document sort;
+
+        private final Integer limit;
+
+        private final AtomicLong count = new AtomicLong();
+
+        public QuerySample(String shape, String operation, Document filter, Document sort, Integer limit) {
+            this.shape = shape;
+            this.operation = operation;
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+        }
+    }
+}
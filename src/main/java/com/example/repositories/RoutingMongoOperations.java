@@ -0,0 +1,104 @@
+package com.example.repositories;
+
+import com.example.configurations.MongoRoutingPropertiesConfig;
+import com.example.domains.enums.ReadOperation;
+import com.example.exceptions.DeadlineExceededException;
+import com.example.utils.ConsistencyContext;
+import com.example.utils.Constants;
+import com.example.utils.Profiler;
+import com.example.utils.RequestDeadline;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class RoutingMongoOperations {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoDatabaseFactory mongoDatabaseFactory;
+
+    private final MongoRoutingPropertiesConfig properties;
+
+    private final Map<ReadOperation, ReadPreference> readPreferences = new EnumMap<>(ReadOperation.class);
+
+    private final Map<ReadOperation, MongoTemplate> readTemplates = new EnumMap<>(ReadOperation.class);
+
+    public RoutingMongoOperations(MongoTemplate mongoTemplate, MongoDatabaseFactory mongoDatabaseFactory,
+                                  MongoRoutingPropertiesConfig properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoDatabaseFactory = mongoDatabaseFactory;
+        this.properties = properties;
+        readPreferences.put(ReadOperation.SEARCH, ReadPreference.valueOf(properties.getSearch()));
+        readPreferences.put(ReadOperation.FIND_BY_ID, ReadPreference.valueOf(properties.getFindById()));
+        readPreferences.forEach((operation, readPreference) -> {
+            var template = new MongoTemplate(mongoDatabaseFactory, mongoTemplate.getConverter());
+            template.setReadPreference(readPreference);
+            readTemplates.put(operation, template);
+        });
+    }
+
+    public MongoOperations primary() {
+        return mongoTemplate;
+    }
+
+    public <T> T read(ReadOperation operation, Function<MongoOperations, T> callback) {
+        return Profiler.record(Constants.PROFILING_LAYER_DATABASE, operation.name(), () -> withDeadline(() -> doRead(operation, callback)));
+    }
+
+    public <T> T write(Function<MongoOperations, T> callback) {
+        return Profiler.record(Constants.PROFILING_LAYER_DATABASE, Constants.PROFILING_OPERATION_WRITE, () -> withDeadline(() -> doWrite(callback)));
+    }
+
+    private <T> T doRead(ReadOperation operation, Function<MongoOperations, T> callback) {
+        var afterClusterTime = ConsistencyContext.current().getAfterClusterTime();
+        if (!properties.getCausalConsistency() || afterClusterTime == null) {
+            return callback.apply(readTemplates.get(operation));
+        }
+
+        try (var session = mongoDatabaseFactory.getSession(ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            session.advanceOperationTime(afterClusterTime);
+            var template = readTemplates.get(operation).withSession(session);
+            template.setReadPreference(readPreferences.get(operation));
+            return callback.apply(template);
+        }
+    }
+
+    private <T> T doWrite(Function<MongoOperations, T> callback) {
+        if (!properties.getCausalConsistency()) {
+            return callback.apply(mongoTemplate);
+        }
+
+        try (var session = mongoDatabaseFactory.getSession(ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            var template = mongoTemplate.withSession(session);
+            template.setWriteConcern(WriteConcern.MAJORITY);
+            var result = callback.apply(template);
+            ConsistencyContext.current().setOperationTime(session.getOperationTime());
+            return result;
+        }
+    }
+
+    private <T> T withDeadline(Supplier<T> operation) {
+        var deadline = RequestDeadline.current();
+        deadline.check();
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            if (ExceptionUtils.indexOfType(e, MongoExecutionTimeoutException.class) >= 0 || deadline.isExpired()) {
+                throw new DeadlineExceededException(deadline.isCancelled() ? Constants.REQUEST_CANCELLED : Constants.DEADLINE_EXCEEDED);
+            }
+            throw e;
+        }
+    }
+}
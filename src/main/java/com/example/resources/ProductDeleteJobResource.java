@@ -0,0 +1,69 @@
+package com.example.resources;
+
+import com.example.domains.dto.ProductDeleteJobDTO;
+import com.example.domains.enums.Bulkhead;
+import com.example.services.BulkDeleteService;
+import com.example.services.BulkheadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@AllArgsConstructor
+@Tag(name = "Product delete jobs")
+@RequestMapping("/products/delete-jobs")
+public class ProductDeleteJobResource {
+
+    private final BulkDeleteService bulkDeleteService;
+
+    private final BulkheadService bulkheadService;
+
+    @PostMapping
+    @Operation(description = "Agenda a remoção assíncrona, em lotes, dos produtos que atendem ao filtro informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job de remoção agendado"),
+            @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<ProductDeleteJobDTO>> create(@Valid @RequestBody ProductDeleteJobDTO jobDTO) {
+        var uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            var job = bulkDeleteService.create(jobDTO);
+            var location = uriBuilder.path("/{id}").buildAndExpand(job.getId()).toUri();
+            return ResponseEntity.accepted().location(location).body(job);
+        });
+    }
+
+    @GetMapping("/{id}")
+    @Operation(description = "Consulta o progresso de um job de remoção")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<ProductDeleteJobDTO>> findById(@PathVariable String id) {
+        return bulkheadService.submit(Bulkhead.READ, () -> ResponseEntity.ok().body(bulkDeleteService.findById(id)));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(description = "Cancela um job de remoção pendente ou em execução")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<ProductDeleteJobDTO>> cancel(@PathVariable String id) {
+        return bulkheadService.submit(Bulkhead.WRITE, () -> ResponseEntity.ok().body(bulkDeleteService.cancel(id)));
+    }
+}
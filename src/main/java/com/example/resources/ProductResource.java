@@ -1,8 +1,21 @@
 package com.example.resources;
 
 
+import com.example.domains.dto.ProductChangesDTO;
 import com.example.domains.dto.ProductDTO;
+import com.example.domains.dto.ProductSuggestionDTO;
+import com.example.domains.enums.Bulkhead;
+import com.example.exceptions.NotFoundException;
+import com.example.services.BulkheadService;
+import com.example.services.ChangeFeedService;
+import com.example.services.ChangeStreamService;
+import com.example.services.PatchCoalescingService;
 import com.example.services.ProductService;
+import com.example.utils.ConsistencyContext;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,13 +23,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 import static com.example.utils.Constants.EMPTY;
 
 
@@ -29,6 +58,20 @@ public class ProductResource {
 
     private final ProductService productService;
 
+    private final BulkheadService bulkheadService;
+
+    private final PatchCoalescingService patchCoalescingService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ChangeStreamService changeStreamService;
+
+    private final ObjectMapper objectMapper;
+
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
     @PostMapping
     @Operation(description = "Cria um novo produto")
     @ApiResponses(value = {
@@ -36,25 +79,39 @@ public class ProductResource {
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados"),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
             @ApiResponse(responseCode = "409", description = "Duplicidade nos dados informados"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> create(@Valid @RequestBody ProductDTO productDTO) {
-        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
-                .buildAndExpand(productDTO.getId()).toUri())
-                .body(productService.create(productDTO));
+    public CompletableFuture<ResponseEntity<ProductDTO>> create(@Valid @RequestBody ProductDTO productDTO) {
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .buildAndExpand(productDTO.getId()).toUri();
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            var product = productService.create(productDTO);
+            return ResponseEntity.created(location).headers(consistencyHeaders()).body(product);
+        });
     }
 
     @PatchMapping("/{id}")
-    @Operation(description = "Atualiza parcialmente um produto existente")
+    @Operation(description = "Atualiza parcialmente um produto existente. Para produtos com atributos em buckets, a resposta traz apenas os atributos alterados")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Registro atualizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados"),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
             @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
             @ApiResponse(responseCode = "409", description = "Duplicidade nos dados informados"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> patch(@PathVariable String id,
-                                            @RequestParam(value = "index", defaultValue = EMPTY) String index, @RequestBody ProductDTO productDTO) {
-        return ResponseEntity.ok().body(productService.patch(id, index, productDTO));
+    public CompletableFuture<ResponseEntity<ProductDTO>> patch(@PathVariable String id,
+                                                               @RequestParam(value = "index", defaultValue = EMPTY) String index, @RequestBody ProductDTO productDTO) {
+        if (patchCoalescingService.isEnabled()) {
+            return patchCoalescingService.submit(id, index, productDTO)
+                    .thenApply(acknowledgement -> ResponseEntity.ok()
+                            .headers(consistencyHeaders(acknowledgement.operationTime()))
+                            .body(acknowledgement.product()));
+        }
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            var product = productService.patch(id, index, productDTO);
+            return ResponseEntity.ok().headers(consistencyHeaders()).body(product);
+        });
     }
 
     @PutMapping("/{id}")
@@ -65,9 +122,13 @@ public class ProductResource {
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
             @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
             @ApiResponse(responseCode = "409", description = "Duplicidade nos dados informados"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> update(@PathVariable String id, @Valid @RequestBody ProductDTO productDTO) {
-        return ResponseEntity.ok().body(productService.update(id, productDTO));
+    public CompletableFuture<ResponseEntity<ProductDTO>> update(@PathVariable String id, @Valid @RequestBody ProductDTO productDTO) {
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            var product = productService.update(id, productDTO);
+            return ResponseEntity.ok().headers(consistencyHeaders()).body(product);
+        });
     }
 
     @GetMapping("/search")
@@ -76,14 +137,125 @@ public class ProductResource {
             @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<Page<ProductDTO>>> findByKeyword(@RequestParam(value = "keyword") String keyword,
+                                                                             @RequestParam(value = "page", defaultValue = "0") Integer page,
+                                                                             @RequestParam(value = "linesPerPage", defaultValue = "100") Integer linesPerPage,
+                                                                             @RequestParam(value = "direction", defaultValue = "ASC") String direction,
+                                                                             @RequestParam(value = "orderBy", defaultValue = "id") String orderBy,
+                                                                             @RequestParam(value = "maxStale", defaultValue = "0") Long maxStale) {
+        var pageable = PageRequest.of(page, linesPerPage, Sort.Direction.valueOf(direction), orderBy);
+        return bulkheadService.submit(Bulkhead.SEARCH, () -> {
+            Page<ProductDTO> products = productService.findByKeyword(keyword, pageable, Duration.ofSeconds(maxStale));
+            return ResponseEntity.ok().body(products);
+        });
+    }
+
+    @GetMapping("/attributes/{key}")
+    @Operation(description = "Busca paginada de produtos por chave e valor de atributo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<Page<ProductDTO>>> findByAttribute(@PathVariable String key,
+                                                                               @RequestParam(value = "value", required = false) String value,
+                                                                               @RequestParam(value = "page", defaultValue = "0") Integer page,
+                                                                               @RequestParam(value = "linesPerPage", defaultValue = "100") Integer linesPerPage,
+                                                                               @RequestParam(value = "direction", defaultValue = "ASC") String direction,
+                                                                               @RequestParam(value = "orderBy", defaultValue = "id") String orderBy) {
+        var pageable = PageRequest.of(page, linesPerPage, Sort.Direction.valueOf(direction), orderBy);
+        return bulkheadService.submit(Bulkhead.SEARCH, () -> ResponseEntity.ok().body(productService.findByAttribute(key, value, pageable)));
+    }
+
+    @GetMapping(value = "/search/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
+    @Operation(description = "Busca de produtos por filtros transmitida como sequência (NDJSON, CBOR ou Smile)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public ResponseEntity<ResponseBodyEmitter> streamByKeyword(@RequestParam(value = "keyword") String keyword,
+                                                               @RequestParam(value = "direction", defaultValue = "ASC") String direction,
+                                                               @RequestParam(value = "orderBy", defaultValue = "id") String orderBy,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_NDJSON_VALUE) String accept) {
+        var mediaType = resolveStreamMediaType(accept);
+        var writer = streamWriter(mediaType);
+        var sort = Sort.by(Sort.Direction.valueOf(direction), orderBy);
+        var deadline = RequestDeadline.current();
+        var emitter = new ResponseBodyEmitter(deadline.remaining().map(Duration::toMillis).orElse(null));
+        emitter.onTimeout(deadline::cancel);
+        emitter.onError(e -> deadline.cancel());
+        bulkheadService.submit(Bulkhead.STREAM, () -> {
+            try {
+                var buffer = new ByteArrayOutputStream();
+                try (var sequence = writer.writeValues(buffer)) {
+                    productService.streamByKeyword(keyword, sort, product -> {
+                        try {
+                            sequence.write(product);
+                            if (buffer.size() >= Constants.STREAM_CHUNK_SIZE) {
+                                sequence.flush();
+                                emitter.send(buffer.toByteArray(), mediaType);
+                                buffer.reset();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                if (buffer.size() > 0) {
+                    emitter.send(buffer.toByteArray(), mediaType);
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+            return null;
+        });
+        return ResponseEntity.ok().contentType(mediaType).body(emitter);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(description = "Sugere produtos cuja descrição começa com o prefixo informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<Page<ProductDTO>> findByKeyword(@RequestParam(value = "keyword") String keyword,
-                                                          @RequestParam(value = "page", defaultValue = "0") Integer page,
-                                                          @RequestParam(value = "linesPerPage", defaultValue = "100") Integer linesPerPage,
-                                                          @RequestParam(value = "direction", defaultValue = "ASC") String direction,
-                                                          @RequestParam(value = "orderBy", defaultValue = "id") String orderBy) {
-        Page<ProductDTO> products = productService.findByKeyword(keyword, PageRequest.of(page, linesPerPage, Sort.Direction.valueOf(direction), orderBy));
-        return ResponseEntity.ok().body(products);
+    public CompletableFuture<ResponseEntity<List<ProductSuggestionDTO>>> autocomplete(@RequestParam(value = "prefix") String prefix,
+                                                                                     @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        return bulkheadService.submit(Bulkhead.READ, () -> ResponseEntity.ok().body(productService.autocomplete(prefix, limit)));
+    }
+
+    @GetMapping("/changes")
+    @Operation(description = "Lista produtos criados, atualizados ou removidos desde o token informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<ProductChangesDTO>> changes(@RequestParam(value = "since", required = false) String since,
+                                                                        @RequestParam(value = "limit", defaultValue = "500") Integer limit) {
+        return bulkheadService.submit(Bulkhead.READ, () -> ResponseEntity.ok().body(changeFeedService.changesSince(since, limit)));
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(description = "Transmite as alterações de produtos em tempo real via server-sent events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Stream de alterações desabilitado"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public SseEmitter streamChanges() {
+        if (!changeStreamService.isEnabled()) {
+            throw new NotFoundException(Constants.CHANGE_STREAM_DISABLED);
+        }
+        return changeStreamService.subscribe();
     }
 
     @GetMapping("/{id}")
@@ -93,9 +265,31 @@ public class ProductResource {
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados"),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
             @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
+            @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
+    public CompletableFuture<ResponseEntity<ProductDTO>> findById(@Valid @PathVariable String id,
+                                                                  @RequestParam(value = "expand", defaultValue = EMPTY) Set<String> expand) {
+        return bulkheadService.submit(Bulkhead.READ, () -> ResponseEntity.ok().body(productService.findById(id, expand)));
+    }
+
+    @GetMapping("/{id}/attributes/{key}/value")
+    @Operation(description = "Transmite o valor de um atributo grande armazenado fora do documento do produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação realizada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Registro não encontrado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> findById(@Valid @PathVariable String id) {
-        return ResponseEntity.ok().body(productService.findById(id));
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> findAttributeValue(@PathVariable String id, @PathVariable String key) {
+        return bulkheadService.submit(Bulkhead.READ, () -> {
+            var resource = productService.openAttributeValue(id, key);
+            StreamingResponseBody body = outputStream -> {
+                try (var inputStream = resource.getInputStream()) {
+                    inputStream.transferTo(outputStream);
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        });
     }
 
     @DeleteMapping("/attribute/{id}")
@@ -104,12 +298,15 @@ public class ProductResource {
             @ApiResponse(responseCode = "204", description = "Solicitação sem conteúdo realizada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> deleteByAttribute(@Valid @PathVariable String id,
-                                                        @RequestParam(value = "attribute") String attribute,
-                                                        @RequestParam(value = "value", defaultValue = EMPTY) String value) {
-        productService.deleteByAttribute(id, attribute, value);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<ProductDTO>> deleteByAttribute(@Valid @PathVariable String id,
+                                                                           @RequestParam(value = "attribute") String attribute,
+                                                                           @RequestParam(value = "value", defaultValue = EMPTY) String value) {
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            productService.deleteByAttribute(id, attribute, value);
+            return ResponseEntity.noContent().headers(consistencyHeaders()).build();
+        });
     }
 
     @DeleteMapping("/{id}")
@@ -118,9 +315,45 @@ public class ProductResource {
             @ApiResponse(responseCode = "204", description = "Solicitação sem conteúdo realizada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Inconsistência nos dados informados."),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado"),
+            @ApiResponse(responseCode = "429", description = "Capacidade esgotada, tente novamente mais tarde"),
             @ApiResponse(responseCode = "500", description = "Sistema indisponível no momento")})
-    public ResponseEntity<ProductDTO> delete(@Valid @PathVariable String id) {
-        productService.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<ProductDTO>> delete(@Valid @PathVariable String id) {
+        return bulkheadService.submit(Bulkhead.WRITE, () -> {
+            productService.delete(id);
+            return ResponseEntity.noContent().headers(consistencyHeaders()).build();
+        });
+    }
+
+    private MediaType resolveStreamMediaType(String accept) {
+        var accepted = MediaType.parseMediaTypes(accept);
+        if (accepted.stream().anyMatch(MediaType.APPLICATION_CBOR::includes)) {
+            return MediaType.APPLICATION_CBOR;
+        }
+        if (accepted.stream().anyMatch(Constants.APPLICATION_SMILE::includes)) {
+            return Constants.APPLICATION_SMILE;
+        }
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    private ObjectWriter streamWriter(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.equals(mediaType)) {
+            return cborHttpMessageConverter.getObjectMapper().writer();
+        }
+        if (Constants.APPLICATION_SMILE.equals(mediaType)) {
+            return smileHttpMessageConverter.getObjectMapper().writer();
+        }
+        return objectMapper.writer().withRootValueSeparator("\n");
+    }
+
+    private HttpHeaders consistencyHeaders() {
+        return consistencyHeaders(ConsistencyContext.current().getOperationTime());
+    }
+
+    private HttpHeaders consistencyHeaders(BsonTimestamp operationTime) {
+        var headers = new HttpHeaders();
+        if (operationTime != null) {
+            headers.set(Constants.X_CONSISTENCY_TOKEN, ConsistencyContext.toToken(operationTime));
+        }
+        return headers;
     }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.example.services;
+
+import com.example.configurations.AttributeBucketPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.ProductAttributeBucket;
+import com.example.domains.dto.Attribute;
+import com.example.repositories.ProductAttributeBucketRepository;
+import com.example.utils.RequestDeadline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class AttributeBucketService {
+
+    private final ProductAttributeBucketRepository repository;
+
+    private final AttributeBucketPropertiesConfig properties;
+
+    public boolean isBucketed(Product product) {
+        return product.getAttributeBuckets() != null;
+    }
+
+    public boolean shouldBucket(Product product) {
+        if (product.getAttributes() == null) {
+            return false;
+        }
+        int size = product.getAttributes().size();
+        if (isBucketed(product)) {
+            return size >= properties.getThreshold() / 2;
+        }
+        return properties.getEnabled() && size >= properties.getThreshold();
+    }
+
+    public int bucketCount(int attributes) {
+        return Math.max(1, (attributes + properties.getBucketSize() - 1) / properties.getBucketSize());
+    }
+
+    public Set<Integer> bucketsFor(Collection<String> keys, int buckets) {
+        return keys.stream().map(key -> bucketOf(key, buckets)).collect(Collectors.toSet());
+    }
+
+    public boolean exceedsBucketSize(List<Attribute> attributes, int buckets) {
+        return group(attributes, buckets).values().stream().anyMatch(bucket -> bucket.size() > 2 * properties.getBucketSize());
+    }
+
+    public List<Attribute> load(Product product) {
+        return load(product.getId(), IntStream.range(0, product.getAttributeBuckets()).boxed().toList());
+    }
+
+    public List<Attribute> load(String productId, Collection<Integer> buckets) {
+        RequestDeadline.current().check();
+        var attributes = new ArrayList<Attribute>();
+        repository.findByProductIdAndBucketInOrderByBucketAsc(productId, buckets)
+                .forEach(bucket -> attributes.addAll(bucket.getAttributes()));
+        return attributes;
+    }
+
+    public void assemble(Collection<Product> products) {
+        var bucketed = products.stream().filter(this::isBucketed).toList();
+        if (bucketed.isEmpty()) {
+            return;
+        }
+        RequestDeadline.current().check();
+        var attributesByProduct = repository.findByProductIdInOrderByBucketAsc(bucketed.stream().map(Product::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ProductAttributeBucket::getProductId,
+                        Collectors.flatMapping(bucket -> bucket.getAttributes().stream(), Collectors.toCollection(ArrayList::new))));
+        bucketed.forEach(product -> product.setAttributes(attributesByProduct.getOrDefault(product.getId(), new ArrayList<>())));
+    }
+
+    public void store(String productId, int buckets, List<Attribute> attributes) {
+        store(productId, buckets, IntStream.range(0, buckets).boxed().toList(), attributes);
+    }
+
+    public void trim(String productId, int buckets) {
+        repository.deleteByProductIdAndBucketGreaterThanEqual(productId, buckets);
+    }
+
+    public void store(String productId, int buckets, Collection<Integer> changedBuckets, List<Attribute> attributes) {
+        var grouped = group(attributes, buckets);
+        repository.saveAll(changedBuckets.stream()
+                .map(bucket -> ProductAttributeBucket.builder()
+                        .id(productId + "-" + bucket)
+                        .productId(productId)
+                        .bucket(bucket)
+                        .attributes(grouped.getOrDefault(bucket, new ArrayList<>()))
+                        .build())
+                .toList());
+    }
+
+    public void delete(String productId) {
+        repository.deleteByProductId(productId);
+    }
+
+    private Map<Integer, List<Attribute>> group(List<Attribute> attributes, int buckets) {
+        return attributes.stream().collect(Collectors.groupingBy(attribute -> bucketOf(attribute.getKey(), buckets),
+                TreeMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private int bucketOf(String key, int buckets) {
+        return Math.floorMod(key.hashCode(), buckets);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.services;
+
+import com.example.configurations.AttributeIndexPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.AttributeIndexReport;
+import com.example.utils.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@Service
+public class AttributeIndexService {
+
+    private static final String KEY_ATTRIBUTE_KEY = Constants.KEY_ATTRIBUTES + "." + Constants.KEY_KEY;
+    private static final String KEY_ATTRIBUTE_VALUE = Constants.KEY_ATTRIBUTES + "." + Constants.KEY_VALUE;
+    private static final int INDEX_NAME_KEY_LENGTH = 40;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AttributeUsageService attributeUsage;
+
+    private final AttributeIndexPropertiesConfig properties;
+
+    private final ConcurrentMap<String, LocalDateTime> indexedSince = new ConcurrentHashMap<>();
+
+    private final Counter createdCounter;
+
+    private final Counter droppedCounter;
+
+    public AttributeIndexService(MongoTemplate mongoTemplate, AttributeUsageService attributeUsage,
+                                 AttributeIndexPropertiesConfig properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.attributeUsage = attributeUsage;
+        this.properties = properties;
+        this.createdCounter = meterRegistry.counter(Constants.METRIC_ATTRIBUTE_INDEX_CREATED);
+        this.droppedCounter = meterRegistry.counter(Constants.METRIC_ATTRIBUTE_INDEX_DROPPED);
+        meterRegistry.gauge(Constants.METRIC_ATTRIBUTE_INDEX_MANAGED, indexedSince, Map::size);
+    }
+
+    public boolean isManaged() {
+        return properties.getEnabled();
+    }
+
+    @Scheduled(initialDelayString = "#{@attributeIndexPropertiesConfig.interval.toMillis()}",
+            fixedDelayString = "#{@attributeIndexPropertiesConfig.interval.toMillis()}")
+    public void scheduledReconcile() {
+        try {
+            if (properties.getEnabled()) {
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.error(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "scheduledReconcile", e.getMessage(), e);
+        } finally {
+            attributeUsage.decay();
+        }
+    }
+
+    // Builds since MongoDB 4.2 only lock at start and end, but ensureIndex still blocks this scheduler thread.
+    public synchronized List<String> reconcile() {
+        var indexOps = mongoTemplate.indexOps(Product.class);
+        var managed = managedIndexes(indexOps.getIndexInfo());
+        indexedSince.keySet().retainAll(managed.keySet());
+        managed.keySet().forEach(key -> {
+            indexedSince.putIfAbsent(key, LocalDateTime.now());
+            attributeUsage.markIndexed(key, true);
+        });
+
+        var actions = new ArrayList<String>();
+        var minCreatedAt = LocalDateTime.now().minus(properties.getMinIndexAge());
+        managed.forEach((key, name) -> {
+            if (actions.size() < properties.getMaxBuildsPerCycle()
+                    && attributeUsage.score(key) < properties.getDropBelow()
+                    && indexedSince.get(key).isBefore(minCreatedAt)) {
+                indexOps.dropIndex(name);
+                indexedSince.remove(key);
+                attributeUsage.markIndexed(key, false);
+                droppedCounter.increment();
+                log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "reconcile", Constants.ATTRIBUTE_INDEX_DROPPED + name);
+                actions.add(name);
+            }
+        });
+
+        var candidates = attributeUsage.getUsages().stream()
+                .filter(usage -> !indexedSince.containsKey(usage.getKey()))
+                .filter(usage -> usage.score() >= properties.getMinFilters())
+                .sorted(Comparator.comparingDouble(AttributeUsageService.Usage::score).reversed())
+                .toList();
+        int builds = 0;
+        for (var candidate : candidates) {
+            if (builds >= properties.getMaxBuildsPerCycle() || indexedSince.size() >= properties.getMaxIndexes()) {
+                break;
+            }
+            var key = candidate.getKey();
+            var selectivity = sample(key);
+            if (selectivity.isEmpty()) {
+                log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "reconcile", Constants.ATTRIBUTE_INDEX_UNKNOWN_SELECTIVITY + key);
+                continue;
+            }
+            if (selectivity.getAsDouble() > properties.getMaxSelectivity()) {
+                continue;
+            }
+            var name = indexOps.ensureIndex(new Index()
+                    .on(KEY_ATTRIBUTE_KEY, Sort.Direction.ASC)
+                    .on(KEY_ATTRIBUTE_VALUE, Sort.Direction.ASC)
+                    .named(indexName(key))
+                    .partial(PartialIndexFilter.of(Criteria.where(KEY_ATTRIBUTE_KEY).is(key))));
+            indexedSince.put(key, LocalDateTime.now());
+            attributeUsage.markIndexed(key, true);
+            createdCounter.increment();
+            log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "reconcile", Constants.ATTRIBUTE_INDEX_CREATED + name);
+            actions.add(name);
+            builds++;
+        }
+        return actions;
+    }
+
+    public List<AttributeIndexReport> report() {
+        var collection = mongoTemplate.getCollectionName(Product.class);
+        var managed = managedIndexes(mongoTemplate.indexOps(Product.class).getIndexInfo());
+        var ops = new HashMap<String, Long>();
+        mongoTemplate.getCollection(collection).aggregate(List.of(new Document("$indexStats", new Document())))
+                .forEach(stats -> ops.put(stats.getString("name"), toLong(stats.get("accesses", new Document()).get("ops"))));
+        var sizes = mongoTemplate.getDb().runCommand(new Document("collStats", collection)).get("indexSizes", new Document());
+
+        var keys = new LinkedHashSet<String>();
+        attributeUsage.getUsages().stream()
+                .sorted(Comparator.comparingDouble(AttributeUsageService.Usage::score).reversed())
+                .forEach(usage -> keys.add(usage.getKey()));
+        keys.addAll(managed.keySet());
+
+        return keys.stream().map(key -> {
+            var usage = attributeUsage.get(key);
+            var indexName = managed.get(key);
+            return AttributeIndexReport.builder()
+                    .key(key)
+                    .filters(usage.map(value -> value.getFilters().sum()).orElse(0L))
+                    .score(usage.map(AttributeUsageService.Usage::score).orElse(0.0))
+                    .coverage(usage.map(AttributeUsageService.Usage::getCoverage).orElse(null))
+                    .selectivity(usage.map(AttributeUsageService.Usage::getSelectivity).orElse(null))
+                    .indexName(indexName)
+                    .indexOps(indexName == null ? null : ops.get(indexName))
+                    .indexSizeBytes(indexName == null ? null : toLong(sizes.get(indexName)))
+                    .avgMillisWithoutIndex(usage.map(value -> value.avgMillis(false)).orElse(null))
+                    .avgMillisWithIndex(usage.map(value -> value.avgMillis(true)).orElse(null))
+                    .build();
+        }).toList();
+    }
+
+    // Empty when no sampled product carries the key, which says nothing about its selectivity.
+    private OptionalDouble sample(String key) {
+        var collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class));
+        var sampleSize = Math.min(properties.getSampleSize(), collection.estimatedDocumentCount());
+        if (sampleSize == 0) {
+            return OptionalDouble.empty();
+        }
+        var result = collection.aggregate(List.of(
+                new Document("$sample", new Document("size", sampleSize)),
+                new Document("$unwind", "$" + Constants.KEY_ATTRIBUTES),
+                new Document("$match", new Document(KEY_ATTRIBUTE_KEY, key)),
+                new Document("$group", new Document(Constants.KEY_MONGO_ID, "$" + KEY_ATTRIBUTE_VALUE)
+                        .append("docs", new Document("$sum", 1))),
+                new Document("$group", new Document(Constants.KEY_MONGO_ID, null)
+                        .append("docs", new Document("$sum", "$docs"))
+                        .append("values", new Document("$sum", 1)))
+        )).first();
+        if (result == null) {
+            return OptionalDouble.empty();
+        }
+        double coverage = Math.min(1.0, (double) toLong(result.get("docs")) / sampleSize);
+        double selectivity = coverage / Math.max(1L, toLong(result.get("values")));
+        attributeUsage.recordSample(key, coverage, selectivity);
+        return OptionalDouble.of(selectivity);
+    }
+
+    // Keys are user data: a bounded, name-safe prefix plus a hash; the key is read back from the partial filter.
+    static String indexName(String key) {
+        var readable = key.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (readable.length() > INDEX_NAME_KEY_LENGTH) {
+            readable = readable.substring(0, INDEX_NAME_KEY_LENGTH);
+        }
+        return Constants.ATTRIBUTE_INDEX_PREFIX + readable + "_" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+    }
+
+    private Map<String, String> managedIndexes(List<IndexInfo> indexes) {
+        var managed = new HashMap<String, String>();
+        indexes.stream()
+                .filter(index -> index.getName().startsWith(Constants.ATTRIBUTE_INDEX_PREFIX) && index.getPartialFilterExpression() != null)
+                .forEach(index -> {
+                    var key = Document.parse(index.getPartialFilterExpression()).get(KEY_ATTRIBUTE_KEY);
+                    if (key instanceof String attributeKey) {
+                        managed.put(attributeKey, index.getName());
+                    }
+                });
+        return managed;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
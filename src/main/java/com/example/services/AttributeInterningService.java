@@ -0,0 +1,65 @@
+package com.example.services;
+
+import com.example.configurations.AttributeInterningPropertiesConfig;
+import com.example.domains.dto.Attribute;
+import com.example.utils.Constants;
+import com.example.utils.StringInterner;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AttributeInterningService {
+
+    private final AttributeInterningPropertiesConfig properties;
+
+    private final StringInterner interner;
+
+    public AttributeInterningService(AttributeInterningPropertiesConfig properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.interner = new StringInterner(properties.getMaxEntries(), properties.getMaxValueLength());
+        Gauge.builder(Constants.METRIC_INTERN_ENTRIES, interner, StringInterner::size).register(meterRegistry);
+        Gauge.builder(Constants.METRIC_INTERN_BYTES_SAVED, interner, StringInterner::getBytesSaved).register(meterRegistry);
+        FunctionCounter.builder(Constants.METRIC_INTERN_HITS, interner, StringInterner::getHits).register(meterRegistry);
+    }
+
+    public void intern(List<Attribute> attributes) {
+        if (!properties.getEnabled() || attributes == null) {
+            return;
+        }
+        for (var attribute : attributes) {
+            attribute.setKey(interner.intern(attribute.getKey()));
+            attribute.setValue(internValue(attribute.getValue()));
+        }
+    }
+
+    public boolean isShared(String value) {
+        return properties.getEnabled() && interner.isInterned(value);
+    }
+
+    public long generation() {
+        return interner.getGeneration();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object internValue(Object value) {
+        if (value instanceof String string) {
+            return interner.intern(string);
+        }
+        if (value instanceof List<?> list) {
+            var items = (List<Object>) list;
+            for (var iterator = items.listIterator(); iterator.hasNext(); ) {
+                iterator.set(internValue(iterator.next()));
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            for (var entry : ((Map<String, Object>) map).entrySet()) {
+                entry.setValue(internValue(entry.getValue()));
+            }
+        }
+        return value;
+    }
+}
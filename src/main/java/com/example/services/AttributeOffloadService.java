@@ -0,0 +1,241 @@
+package com.example.services;
+
+import com.example.configurations.AttributeOffloadPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.ProductAttributeBucket;
+import com.example.domains.dto.Attribute;
+import com.example.exceptions.NotFoundException;
+import com.example.utils.Constants;
+import com.example.utils.ObjectSizeEstimator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttributeOffloadService {
+
+    private static final String KEY_SHA256 = "sha256";
+    private static final String KEY_GRIDFS_ID = "_id";
+    private static final String KEY_ORPHANED_AT = "metadata.orphanedAt";
+    private static final String KEY_VALUE_REF = Constants.KEY_ATTRIBUTES + ".valueRef";
+    private static final String FILES_COLLECTION = "fs.files";
+    // A char serializes to at most six JSON bytes (a unicode escape), so below this bound a value can never reach the threshold.
+    private static final long MAX_JSON_BYTES_PER_CHAR = 6;
+
+    private final GridFsTemplate gridFsTemplate;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final AttributeOffloadPropertiesConfig properties;
+
+    public Map<String, String> references(List<Attribute> attributes) {
+        var references = new HashMap<String, String>();
+        if (attributes != null) {
+            attributes.stream()
+                    .filter(attribute -> attribute.getValueRef() != null)
+                    .forEach(attribute -> references.put(attribute.getKey(), attribute.getValueRef()));
+        }
+        return references;
+    }
+
+    public List<Attribute> resolve(List<Attribute> attributes, Predicate<String> keys) {
+        if (attributes == null) {
+            return null;
+        }
+        var resolved = new ArrayList<Attribute>(attributes.size());
+        attributes.forEach(attribute -> {
+            if (attribute.getValueRef() != null && attribute.getValue() == null && keys.test(attribute.getKey())) {
+                resolved.add(new Attribute(attribute.getKey(), readValue(attribute.getValueRef()), attribute.getValueRef(), attribute.getValueSize()));
+            } else {
+                resolved.add(attribute);
+            }
+        });
+        return resolved;
+    }
+
+    // A reference is kept only when it is the one already stored for the same key, so a copied one never owns a file.
+    public void offload(List<Attribute> attributes, Map<String, String> previousReferences) {
+        if (attributes == null) {
+            return;
+        }
+        attributes.stream()
+                .filter(attribute -> attribute.getValue() == null && attribute.getValueRef() != null)
+                .filter(attribute -> !attribute.getValueRef().equals(previousReferences.get(attribute.getKey())))
+                .forEach(attribute -> {
+                    attribute.setValueRef(null);
+                    attribute.setValueSize(null);
+                });
+        long threshold = properties.getThreshold().toBytes();
+        attributes.stream()
+                .filter(attribute -> attribute.getValue() != null)
+                .forEach(attribute -> {
+                    if (!properties.getEnabled() || ObjectSizeEstimator.estimate(attribute.getValue()) * MAX_JSON_BYTES_PER_CHAR < threshold) {
+                        attribute.setValueRef(null);
+                        attribute.setValueSize(null);
+                        return;
+                    }
+
+                    var content = writeValue(attribute.getValue());
+                    if (content.length < threshold) {
+                        attribute.setValueRef(null);
+                        attribute.setValueSize(null);
+                        return;
+                    }
+
+                    var hash = sha256(content);
+                    var previousReference = previousReferences.get(attribute.getKey());
+                    var reference = previousReference != null && hash.equals(storedHash(previousReference))
+                            ? previousReference
+                            : gridFsTemplate.store(new ByteArrayInputStream(content), attribute.getKey(),
+                            MediaType.APPLICATION_JSON_VALUE, new Document(KEY_SHA256, hash)).toHexString();
+
+                    attribute.setValue(null);
+                    attribute.setValueRef(reference);
+                    attribute.setValueSize((long) content.length);
+                });
+    }
+
+    @Scheduled(initialDelayString = "#{@attributeOffloadPropertiesConfig.collectInterval.toMillis()}",
+            fixedDelayString = "#{@attributeOffloadPropertiesConfig.collectInterval.toMillis()}")
+    public void scheduledCollect() {
+        try {
+            collect();
+        } catch (RuntimeException e) {
+            log.error(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "scheduledCollect", e.getMessage(), e);
+        }
+    }
+
+    // Files are never deleted on write: a concurrent writer may still save the old reference back. A file goes only
+    // after it has stayed unreferenced by every product and bucket for the whole grace period.
+    public int collect() {
+        var orphanedBefore = new Date(System.currentTimeMillis() - properties.getCollectGracePeriod().toMillis());
+        var now = new Date();
+        int deleted = 0;
+        ObjectId lastId = null;
+        while (true) {
+            var query = new Query().with(Sort.by(KEY_GRIDFS_ID)).limit(properties.getCollectBatchSize());
+            if (lastId != null) {
+                query.addCriteria(Criteria.where(KEY_GRIDFS_ID).gt(lastId));
+            }
+            var files = mongoTemplate.find(query, Document.class, FILES_COLLECTION);
+            if (files.isEmpty()) {
+                return deleted;
+            }
+            lastId = files.get(files.size() - 1).getObjectId(KEY_GRIDFS_ID);
+
+            var references = files.stream().map(file -> file.getObjectId(KEY_GRIDFS_ID).toHexString()).toList();
+            var referenced = new HashSet<String>();
+            referenced.addAll(mongoTemplate.findDistinct(new Query(Criteria.where(KEY_VALUE_REF).in(references)),
+                    KEY_VALUE_REF, Product.class, String.class));
+            referenced.addAll(mongoTemplate.findDistinct(new Query(Criteria.where(KEY_VALUE_REF).in(references)),
+                    KEY_VALUE_REF, ProductAttributeBucket.class, String.class));
+
+            var expired = new ArrayList<ObjectId>();
+            var orphaned = new ArrayList<ObjectId>();
+            var adopted = new ArrayList<ObjectId>();
+            files.forEach(file -> {
+                var id = file.getObjectId(KEY_GRIDFS_ID);
+                var metadata = file.get("metadata", Document.class);
+                var orphanedAt = metadata == null ? null : metadata.getDate("orphanedAt");
+                if (referenced.contains(id.toHexString())) {
+                    if (orphanedAt != null) {
+                        adopted.add(id);
+                    }
+                } else if (orphanedAt == null) {
+                    orphaned.add(id);
+                } else if (orphanedAt.before(orphanedBefore)) {
+                    expired.add(id);
+                }
+            });
+
+            if (!adopted.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(Criteria.where(KEY_GRIDFS_ID).in(adopted)),
+                        new Update().unset(KEY_ORPHANED_AT), FILES_COLLECTION);
+            }
+            if (!orphaned.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(Criteria.where(KEY_GRIDFS_ID).in(orphaned)),
+                        new Update().set(KEY_ORPHANED_AT, now), FILES_COLLECTION);
+            }
+            if (!expired.isEmpty()) {
+                gridFsTemplate.delete(new Query(Criteria.where(KEY_GRIDFS_ID).in(expired)));
+                deleted += expired.size();
+                log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "collect", Constants.ATTRIBUTE_OFFLOAD_COLLECTED + expired.size());
+            }
+        }
+    }
+
+    public GridFsResource open(String reference) {
+        if (!ObjectId.isValid(reference)) {
+            throw new NotFoundException(Constants.NOT_FOUND);
+        }
+        var file = gridFsTemplate.findOne(new Query(Criteria.where(KEY_GRIDFS_ID).is(new ObjectId(reference))));
+        if (file == null) {
+            throw new NotFoundException(Constants.NOT_FOUND);
+        }
+        return gridFsTemplate.getResource(file);
+    }
+
+    private Object readValue(String reference) {
+        try (var inputStream = open(reference).getInputStream()) {
+            return objectMapper.readValue(inputStream, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] writeValue(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String storedHash(String reference) {
+        if (!ObjectId.isValid(reference)) {
+            return null;
+        }
+        var file = gridFsTemplate.findOne(new Query(Criteria.where(KEY_GRIDFS_ID).is(new ObjectId(reference))));
+        return file == null || file.getMetadata() == null ? null : Objects.toString(file.getMetadata().get(KEY_SHA256), null);
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
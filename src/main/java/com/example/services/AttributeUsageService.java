@@ -0,0 +1,121 @@
+package com.example.services;
+
+import com.example.configurations.AttributeIndexPropertiesConfig;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class AttributeUsageService {
+
+    private final AttributeIndexPropertiesConfig properties;
+
+    private final ConcurrentMap<String, Usage> usages = new ConcurrentHashMap<>();
+
+    public AttributeUsageService(AttributeIndexPropertiesConfig properties) {
+        this.properties = properties;
+    }
+
+    public void record(String key, long elapsedNanos) {
+        var usage = usages.get(key);
+        if (usage == null) {
+            if (usages.size() >= properties.getMaxKeys()) {
+                return;
+            }
+            usage = usages.computeIfAbsent(key, Usage::new);
+        }
+        usage.record(elapsedNanos);
+    }
+
+    public void markIndexed(String key, boolean indexed) {
+        var usage = indexed ? usages.computeIfAbsent(key, Usage::new) : usages.get(key);
+        if (usage != null) {
+            usage.indexed = indexed;
+        }
+    }
+
+    public void recordSample(String key, double coverage, double selectivity) {
+        get(key).ifPresent(usage -> {
+            usage.coverage = coverage;
+            usage.selectivity = selectivity;
+        });
+    }
+
+    public double score(String key) {
+        return get(key).map(Usage::score).orElse(0.0);
+    }
+
+    public Optional<Usage> get(String key) {
+        return Optional.ofNullable(usages.get(key));
+    }
+
+    public Collection<Usage> getUsages() {
+        return List.copyOf(usages.values());
+    }
+
+    public void decay() {
+        usages.values().forEach(usage -> usage.decay(properties.getDecay()));
+        usages.values().removeIf(usage -> !usage.indexed && usage.score() < 1.0);
+    }
+
+    @Getter
+    public static class Usage {
+
+        private final String key;
+
+        private final LongAdder filters = new LongAdder();
+
+        private final DoubleAdder recent = new DoubleAdder();
+
+        private final LongAdder countWithIndex = new LongAdder();
+
+        private final LongAdder nanosWithIndex = new LongAdder();
+
+        private final LongAdder countWithoutIndex = new LongAdder();
+
+        private final LongAdder nanosWithoutIndex = new LongAdder();
+
+        private volatile boolean indexed;
+
+        private volatile Double coverage;
+
+        private volatile Double selectivity;
+
+        public Usage(String key) {
+            this.key = key;
+        }
+
+        public double score() {
+            return recent.sum();
+        }
+
+        public Double avgMillis(boolean withIndex) {
+            long count = withIndex ? countWithIndex.sum() : countWithoutIndex.sum();
+            long nanos = withIndex ? nanosWithIndex.sum() : nanosWithoutIndex.sum();
+            return count == 0 ? null : nanos / 1_000_000.0 / count;
+        }
+
+        private void record(long elapsedNanos) {
+            filters.increment();
+            recent.add(1.0);
+            if (indexed) {
+                countWithIndex.increment();
+                nanosWithIndex.add(elapsedNanos);
+            } else {
+                countWithoutIndex.increment();
+                nanosWithoutIndex.add(elapsedNanos);
+            }
+        }
+
+        private void decay(double factor) {
+            recent.add(recent.sumThenReset() * factor);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.services;
+
+import com.example.configurations.AutocompletePropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.ProductSuggestionDTO;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.repositories.ProductTombstoneRepository;
+import com.example.utils.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class AutocompleteService {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final char SEPARATOR = '\u0000';
+
+    private final ProductRepositoryCustom repositoryCustom;
+
+    private final ProductTombstoneRepository tombstoneRepository;
+
+    private final AutocompletePropertiesConfig properties;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ConcurrentSkipListMap<String, ProductSuggestionDTO> index = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<String, String> keysById = new ConcurrentHashMap<>();
+
+    private final Set<String> removedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    private volatile boolean ready;
+
+    private volatile LocalDateTime lastRefresh;
+
+    public AutocompleteService(ProductRepositoryCustom repositoryCustom, ProductTombstoneRepository tombstoneRepository,
+                               AutocompletePropertiesConfig properties, TaskScheduler taskScheduler) {
+        this.repositoryCustom = repositoryCustom;
+        this.tombstoneRepository = tombstoneRepository;
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.getEnabled() || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            try {
+                var startedAt = LocalDateTime.now();
+                repositoryCustom.streamDescriptions(null, this::load);
+                lastRefresh = startedAt;
+                ready = true;
+                removedWhileLoading.clear();
+                log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "load", Constants.AUTOCOMPLETE_READY + index.size());
+            } catch (RuntimeException e) {
+                log.error(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "load", e.getMessage(), e);
+            } finally {
+                loading.set(false);
+            }
+        }, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "#{@autocompletePropertiesConfig.refreshInterval.toMillis()}")
+    public void refresh() {
+        if (!ready) {
+            load();
+            return;
+        }
+        var startedAt = LocalDateTime.now();
+        var since = lastRefresh.minus(properties.getRefreshInterval());
+        repositoryCustom.streamDescriptions(since, this::load);
+        tombstoneRepository.findByDeletedAtGreaterThanEqual(since).forEach(tombstone -> remove(tombstone.getId()));
+        lastRefresh = startedAt;
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        var boundedLimit = Math.min(Math.max(limit, 1), properties.getMaxLimit());
+        if (!ready) {
+            return repositoryCustom.findByDescriptionPrefix(prefix.strip(), boundedLimit).stream()
+                    .map(product -> new ProductSuggestionDTO(product.getId(), product.getDescription()))
+                    .toList();
+        }
+
+        var normalizedPrefix = normalize(prefix);
+        var suggestions = new ArrayList<ProductSuggestionDTO>(boundedLimit);
+        for (var suggestion : index.subMap(normalizedPrefix, normalizedPrefix + Character.MAX_VALUE).values()) {
+            suggestions.add(suggestion);
+            if (suggestions.size() == boundedLimit) {
+                break;
+            }
+        }
+        return suggestions;
+    }
+
+    public void put(String id, String description) {
+        if (!properties.getEnabled() || id == null || description == null) {
+            return;
+        }
+        var key = normalize(description) + SEPARATOR + id;
+        var previousKey = keysById.put(id, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            index.remove(previousKey);
+        }
+        index.put(key, new ProductSuggestionDTO(id, description));
+    }
+
+    public void remove(String id) {
+        if (!ready) {
+            removedWhileLoading.add(id);
+        }
+        var key = keysById.remove(id);
+        if (key != null) {
+            index.remove(key);
+        }
+    }
+
+    private void load(Product product) {
+        if (!removedWhileLoading.contains(product.getId())) {
+            put(product.getId(), product.getDescription());
+        }
+    }
+
+    private String normalize(String value) {
+        var decomposed = Normalizer.normalize(value.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
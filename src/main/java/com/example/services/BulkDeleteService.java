@@ -0,0 +1,216 @@
+package com.example.services;
+
+import com.example.configurations.BulkDeletePropertiesConfig;
+import com.example.domains.ProductDeleteJob;
+import com.example.domains.dto.ProductDeleteJobDTO;
+import com.example.domains.enums.JobStatus;
+import com.example.exceptions.NotFoundException;
+import com.example.repositories.ProductDeleteJobRepository;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.utils.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class BulkDeleteService {
+
+    private final ProductDeleteJobRepository jobRepository;
+
+    private final ProductRepositoryCustom repositoryCustom;
+
+    private final ProductService productService;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BulkDeletePropertiesConfig properties;
+
+    private final Counter deletedCounter;
+
+    private final Counter failedCounter;
+
+    public BulkDeleteService(ProductDeleteJobRepository jobRepository, ProductRepositoryCustom repositoryCustom,
+                             ProductService productService, MongoTemplate mongoTemplate,
+                             BulkDeletePropertiesConfig properties, MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.repositoryCustom = repositoryCustom;
+        this.productService = productService;
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.deletedCounter = meterRegistry.counter(Constants.METRIC_BULK_DELETE_DELETED);
+        this.failedCounter = meterRegistry.counter(Constants.METRIC_BULK_DELETE_FAILED);
+    }
+
+    public ProductDeleteJobDTO create(ProductDeleteJobDTO jobDTO) {
+        var job = ProductDeleteJob.builder()
+                .keyword(Normalizer.normalize(jobDTO.getKeyword().strip(), Normalizer.Form.NFC))
+                .status(JobStatus.PENDING)
+                .deleted(0L)
+                .failed(0L)
+                .build();
+        return toDTO(jobRepository.save(job));
+    }
+
+    public ProductDeleteJobDTO findById(String id) {
+        return toDTO(findJobById(id));
+    }
+
+    public ProductDeleteJobDTO cancel(String id) {
+        var query = new Query(Criteria.where(Constants.KEY_ID).is(id)
+                .and(Constants.KEY_STATUS).in(JobStatus.PENDING, JobStatus.RUNNING));
+        var update = new Update().set(Constants.KEY_STATUS, JobStatus.CANCELLED)
+                .set(Constants.KEY_FINISHED_AT, LocalDateTime.now());
+        mongoTemplate.updateFirst(query, update, ProductDeleteJob.class);
+        return toDTO(findJobById(id));
+    }
+
+    @Scheduled(fixedDelayString = "#{@bulkDeletePropertiesConfig.batchDelay.toMillis()}")
+    public void process() {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        var job = claim();
+        if (job == null) {
+            return;
+        }
+
+        try {
+            if (job.getTotal() == null) {
+                job.setTotal(repositoryCustom.countByKeyword(job.getKeyword()));
+                job.setStartedAt(LocalDateTime.now());
+            }
+            var products = repositoryCustom.findByKeywordAfter(job.getKeyword(), job.getLastId(), properties.getBatchSize());
+            if (products.isEmpty()) {
+                job.setStatus(JobStatus.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+                job.setLockedUntil(null);
+                saveProgress(job);
+                return;
+            }
+
+            for (var product : products) {
+                if (!renewLease(job)) {
+                    log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "process", Constants.DELETE_JOB_LEASE_LOST + job.getId());
+                    return;
+                }
+                try {
+                    productService.remove(product);
+                } catch (RuntimeException e) {
+                    // lastId stays before this product, so the retry starts again from it
+                    job.setFailed(job.getFailed() + 1);
+                    failedCounter.increment();
+                    log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "process", product.getId() + " " + e.getMessage());
+                    throw e;
+                }
+                job.setDeleted(job.getDeleted() + 1);
+                deletedCounter.increment();
+                job.setLastId(product.getId());
+            }
+            job.setAttempts(0);
+            job.setError(null);
+            job.setLockedUntil(null);
+            saveProgress(job);
+            log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "process", Constants.DELETE_JOB_BATCH + job.getId() + " " + job.getDeleted() + "/" + job.getTotal());
+        } catch (RuntimeException e) {
+            var attempts = Optional.ofNullable(job.getAttempts()).orElse(0) + 1;
+            job.setAttempts(attempts);
+            job.setError(e.getMessage());
+            job.setLockedUntil(null);
+            if (attempts >= properties.getMaxAttempts()) {
+                log.error(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "process", e.getMessage(), e);
+                job.setStatus(JobStatus.FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+            } else {
+                log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "process", Constants.DELETE_JOB_RETRY + attempts + " " + e.getMessage());
+            }
+            saveProgress(job);
+        }
+    }
+
+    // Renews past half the lease; the fenced update stops this worker once the job was cancelled or reclaimed.
+    private boolean renewLease(ProductDeleteJob job) {
+        var now = LocalDateTime.now();
+        var heldUntil = job.getLockedUntil();
+        if (heldUntil != null && now.isBefore(heldUntil.minus(properties.getLease().dividedBy(2)))) {
+            return true;
+        }
+        var renewedUntil = now.plus(properties.getLease()).truncatedTo(ChronoUnit.MILLIS);
+        var query = new Query(Criteria.where(Constants.KEY_ID).is(job.getId())
+                .and(Constants.KEY_STATUS).is(JobStatus.RUNNING)
+                .and(Constants.KEY_LOCKED_UNTIL).is(heldUntil));
+        var result = mongoTemplate.updateFirst(query, new Update().set(Constants.KEY_LOCKED_UNTIL, renewedUntil), ProductDeleteJob.class);
+        if (result.getModifiedCount() == 0) {
+            return false;
+        }
+        job.setLockedUntil(renewedUntil);
+        return true;
+    }
+
+    private ProductDeleteJob claim() {
+        var now = LocalDateTime.now();
+        var query = new Query(Criteria.where(Constants.KEY_STATUS).in(JobStatus.PENDING, JobStatus.RUNNING)
+                .orOperator(Criteria.where(Constants.KEY_LOCKED_UNTIL).is(null), Criteria.where(Constants.KEY_LOCKED_UNTIL).lt(now)))
+                .with(Sort.by(Constants.KEY_CREATED_AT));
+        var update = new Update().set(Constants.KEY_STATUS, JobStatus.RUNNING)
+                .set(Constants.KEY_LOCKED_UNTIL, now.plus(properties.getLease()));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), ProductDeleteJob.class);
+    }
+
+    private void saveProgress(ProductDeleteJob job) {
+        var query = new Query(Criteria.where(Constants.KEY_ID).is(job.getId())
+                .and(Constants.KEY_STATUS).is(JobStatus.RUNNING));
+        var update = new Update()
+                .set(Constants.KEY_TOTAL, job.getTotal())
+                .set(Constants.KEY_DELETED, job.getDeleted())
+                .set(Constants.KEY_FAILED, job.getFailed())
+                .set(Constants.KEY_LAST_ID, job.getLastId())
+                .set(Constants.KEY_ERROR, job.getError())
+                .set(Constants.KEY_ATTEMPTS, job.getAttempts())
+                .set(Constants.KEY_STARTED_AT, job.getStartedAt())
+                .set(Constants.KEY_FINISHED_AT, job.getFinishedAt())
+                .set(Constants.KEY_LOCKED_UNTIL, job.getLockedUntil())
+                .set(Constants.KEY_STATUS, job.getStatus())
+                .currentDate(Constants.KEY_UPDATED_AT);
+        mongoTemplate.updateFirst(query, update, ProductDeleteJob.class);
+    }
+
+    private ProductDeleteJob findJobById(String id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(Constants.NOT_FOUND));
+    }
+
+    private ProductDeleteJobDTO toDTO(ProductDeleteJob job) {
+        Double progress = null;
+        if (job.getTotal() != null) {
+            progress = job.getTotal() == 0 ? 100.0
+                    : Math.min(100.0, 100.0 * (job.getDeleted() + job.getFailed()) / job.getTotal());
+        }
+        return ProductDeleteJobDTO.builder()
+                .id(job.getId())
+                .keyword(job.getKeyword())
+                .status(job.getStatus())
+                .total(job.getTotal())
+                .deleted(job.getDeleted())
+                .failed(job.getFailed())
+                .progress(job.getStatus() == JobStatus.COMPLETED ? Double.valueOf(100.0) : progress)
+                .error(job.getError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .createdAt(job.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.services;
+
+import com.example.configurations.BulkheadPropertiesConfig;
+import com.example.domains.enums.Bulkhead;
+import com.example.exceptions.DeadlineExceededException;
+import com.example.exceptions.TooManyRequestsException;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class BulkheadService {
+
+    private final BulkheadPropertiesConfig properties;
+
+    private final Map<Bulkhead, ThreadPoolTaskExecutor> executors = new EnumMap<>(Bulkhead.class);
+
+    private final Map<Bulkhead, Counter> rejections = new EnumMap<>(Bulkhead.class);
+
+    public BulkheadService(BulkheadPropertiesConfig properties, MeterRegistry meterRegistry,
+                           @Qualifier("searchBulkheadExecutor") ThreadPoolTaskExecutor searchExecutor,
+                           @Qualifier("writeBulkheadExecutor") ThreadPoolTaskExecutor writeExecutor,
+                           @Qualifier("readBulkheadExecutor") ThreadPoolTaskExecutor readExecutor,
+                           @Qualifier("streamBulkheadExecutor") ThreadPoolTaskExecutor streamExecutor) {
+        this.properties = properties;
+        executors.put(Bulkhead.SEARCH, searchExecutor);
+        executors.put(Bulkhead.WRITE, writeExecutor);
+        executors.put(Bulkhead.READ, readExecutor);
+        executors.put(Bulkhead.STREAM, streamExecutor);
+        executors.forEach((bulkhead, executor) -> registerMetrics(meterRegistry, bulkhead, executor));
+    }
+
+    public <T> CompletableFuture<T> submit(Bulkhead bulkhead, Supplier<T> supplier) {
+        try {
+            var future = CompletableFuture.supplyAsync(() -> {
+                RequestDeadline.current().check();
+                return supplier.get();
+            }, executors.get(bulkhead));
+            // A write cannot be abandoned once it started: it is bounded by maxTimeMS and the in-task checks instead.
+            return bulkhead == Bulkhead.WRITE ? future : withDeadline(future);
+        } catch (TaskRejectedException e) {
+            rejections.get(bulkhead).increment();
+            log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "submit", Constants.BULKHEAD_FULL + bulkhead);
+            throw new TooManyRequestsException(Constants.BULKHEAD_FULL + bulkhead, properties.getRetryAfterSeconds());
+        }
+    }
+
+    private <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future) {
+        return RequestDeadline.current().remaining()
+                .map(remaining -> future
+                        .orTimeout(Math.max(remaining.toMillis(), 1), TimeUnit.MILLISECONDS)
+                        .exceptionallyCompose(error -> CompletableFuture.failedFuture(
+                                error instanceof TimeoutException || error.getCause() instanceof TimeoutException
+                                        ? new DeadlineExceededException(Constants.DEADLINE_EXCEEDED)
+                                        : error)))
+                .orElse(future);
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry, Bulkhead bulkhead, ThreadPoolTaskExecutor executor) {
+        var tag = bulkhead.name().toLowerCase();
+        Gauge.builder(Constants.METRIC_BULKHEAD_QUEUE_DEPTH, executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag(Constants.METRIC_TAG_BULKHEAD, tag)
+                .register(meterRegistry);
+        Gauge.builder(Constants.METRIC_BULKHEAD_ACTIVE, executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag(Constants.METRIC_TAG_BULKHEAD, tag)
+                .register(meterRegistry);
+        rejections.put(bulkhead, Counter.builder(Constants.METRIC_BULKHEAD_REJECTED)
+                .tag(Constants.METRIC_TAG_BULKHEAD, tag)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.services;
+
+import com.example.configurations.ChangeFeedPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.ProductChangeDTO;
+import com.example.domains.dto.ProductChangesDTO;
+import com.example.domains.enums.ChangeType;
+import com.example.exceptions.GenericException;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.utils.Constants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.mappers.ProductMapper.INSTANCE;
+
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private static final String TOKEN_SEPARATOR = "|";
+
+    private static final Comparator<ProductChangeDTO> CHANGE_ORDER = Comparator
+            .comparing(ProductChangeDTO::getChangedAt)
+            .thenComparing(ProductChangeDTO::getId);
+
+    private final ProductRepositoryCustom repositoryCustom;
+
+    private final AttributeBucketService attributeBuckets;
+
+    private final ChangeFeedPropertiesConfig properties;
+
+    public ProductChangesDTO changesSince(String token, int limit) {
+        var boundedLimit = Math.min(Math.max(limit, 1), properties.getMaxLimit());
+        var position = Position.parse(token);
+        var until = repositoryCustom.currentTime().minus(properties.getSafetyLag());
+
+        var products = repositoryCustom.findChangedSince(position.changedAt(), position.id(), until, boundedLimit + 1);
+        attributeBuckets.assemble(products);
+        var upserts = products.stream().map(this::toUpsert);
+        var deletes = repositoryCustom.findDeletedSince(position.changedAt(), position.id(), until, boundedLimit + 1).stream()
+                .map(tombstone -> ProductChangeDTO.builder()
+                        .type(ChangeType.DELETE)
+                        .id(tombstone.getId())
+                        .changedAt(tombstone.getDeletedAt())
+                        .build());
+
+        var changes = new ArrayList<>(Stream.concat(upserts, deletes).sorted(CHANGE_ORDER).toList());
+        var hasMore = changes.size() > boundedLimit;
+        List<ProductChangeDTO> page = hasMore ? changes.subList(0, boundedLimit) : changes;
+        var nextToken = page.isEmpty()
+                ? token
+                : new Position(page.get(page.size() - 1).getChangedAt(), page.get(page.size() - 1).getId()).toToken();
+
+        return ProductChangesDTO.builder()
+                .changes(page)
+                .nextToken(nextToken)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public ProductChangeDTO toUpsert(Product product) {
+        return ProductChangeDTO.builder()
+                .type(ChangeType.UPSERT)
+                .id(product.getId())
+                .changedAt(product.getUpdatedAt())
+                .product(INSTANCE.toProductDTO(product))
+                .build();
+    }
+
+    private record Position(LocalDateTime changedAt, String id) {
+
+        static Position parse(String token) {
+            if (token == null || token.isBlank()) {
+                return new Position(null, null);
+            }
+            try {
+                var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                var separator = decoded.indexOf(TOKEN_SEPARATOR);
+                if (separator < 0) {
+                    throw new GenericException(Constants.INVALID_CHANGE_TOKEN + token);
+                }
+                return new Position(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new GenericException(Constants.INVALID_CHANGE_TOKEN + token);
+            }
+        }
+
+        String toToken() {
+            var raw = changedAt + TOKEN_SEPARATOR + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
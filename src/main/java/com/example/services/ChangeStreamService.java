@@ -0,0 +1,120 @@
+package com.example.services;
+
+import com.example.configurations.ChangeFeedPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.ProductChangeDTO;
+import com.example.domains.enums.ChangeType;
+import com.example.utils.Constants;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeStreamService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AttributeBucketService attributeBuckets;
+
+    private final ChangeFeedService changeFeed;
+
+    private final ChangeFeedPropertiesConfig properties;
+
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+    private MessageListenerContainer container;
+
+    public boolean isEnabled() {
+        return properties.getStreamEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!isEnabled() || container != null) {
+            return;
+        }
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        var request = ChangeStreamRequest.builder(this::onChange)
+                .collection(mongoTemplate.getCollectionName(Product.class))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build();
+        container.register(request, Product.class, e -> log.error(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "changeStream", e.getMessage(), e));
+        container.start();
+        log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "start", Constants.CHANGE_STREAM_STARTED);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (container != null) {
+            container.stop();
+            container = null;
+        }
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    public SseEmitter subscribe() {
+        var emitter = new SseEmitter(0L);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Product> message) {
+        var raw = message.getRaw();
+        if (raw == null || emitters.isEmpty()) {
+            return;
+        }
+        ProductChangeDTO change;
+        if (raw.getOperationType() == OperationType.DELETE) {
+            var clusterTime = raw.getClusterTime();
+            var key = raw.getDocumentKey().get(Constants.KEY_MONGO_ID);
+            change = ProductChangeDTO.builder()
+                    .type(ChangeType.DELETE)
+                    .id(key.isObjectId() ? key.asObjectId().getValue().toHexString() : key.asString().getValue())
+                    .changedAt(clusterTime == null ? LocalDateTime.now()
+                            : LocalDateTime.ofInstant(Instant.ofEpochSecond(clusterTime.getTime()), ZoneId.systemDefault()))
+                    .build();
+        } else if (message.getBody() != null) {
+            var product = message.getBody();
+            attributeBuckets.assemble(List.of(product));
+            change = changeFeed.toUpsert(product);
+        } else {
+            return;
+        }
+        emitters.forEach(emitter -> send(emitter, change));
+    }
+
+    private void send(SseEmitter emitter, ProductChangeDTO change) {
+        try {
+            emitter.send(SseEmitter.event().name(change.getType().name()).id(change.getId()).data(change));
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
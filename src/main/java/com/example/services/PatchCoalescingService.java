@@ -0,0 +1,230 @@
+package com.example.services;
+
+import com.example.configurations.BulkheadPropertiesConfig;
+import com.example.configurations.PatchCoalescingPropertiesConfig;
+import com.example.domains.dto.ProductDTO;
+import com.example.domains.enums.Bulkhead;
+import com.example.exceptions.DeadlineExceededException;
+import com.example.exceptions.DuplicatedException;
+import com.example.exceptions.GenericException;
+import com.example.exceptions.TooManyRequestsException;
+import com.example.utils.ConsistencyContext;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonTimestamp;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+@Service
+public class PatchCoalescingService {
+
+    private static final Duration UNBOUNDED = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final ProductService productService;
+
+    private final BulkheadService bulkheadService;
+
+    private final TaskScheduler taskScheduler;
+
+    private final PatchCoalescingPropertiesConfig properties;
+
+    private final BulkheadPropertiesConfig bulkheadProperties;
+
+    private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final Counter requests;
+
+    private final Counter writes;
+
+    private final Counter rejected;
+
+    public PatchCoalescingService(ProductService productService, BulkheadService bulkheadService, TaskScheduler taskScheduler,
+                                  PatchCoalescingPropertiesConfig properties, BulkheadPropertiesConfig bulkheadProperties,
+                                  MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.bulkheadService = bulkheadService;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.bulkheadProperties = bulkheadProperties;
+        this.requests = meterRegistry.counter(Constants.METRIC_PATCH_COALESCED_REQUESTS);
+        this.writes = meterRegistry.counter(Constants.METRIC_PATCH_COALESCED_WRITES);
+        this.rejected = meterRegistry.counter(Constants.METRIC_PATCH_COALESCED_REJECTED);
+    }
+
+    public boolean isEnabled() {
+        return properties.getEnabled();
+    }
+
+    public CompletableFuture<Acknowledgement> submit(String id, String index, ProductDTO productDTO) {
+        var pending = new Pending(new ProductService.Patch(index, productDTO), new CompletableFuture<>(),
+                RequestDeadline.current(), ConsistencyContext.current().getAfterClusterTime());
+        lanes.compute(id, (key, lane) -> {
+            var current = lane == null ? new Lane() : lane;
+            if (current.buffer.size() >= properties.getMaxPending()) {
+                rejected.increment();
+                throw new TooManyRequestsException(Constants.PATCH_LANE_FULL + id, bulkheadProperties.getRetryAfterSeconds());
+            }
+            current.buffer.add(pending);
+            if (!current.scheduled && !current.flushing) {
+                current.scheduled = true;
+                schedule(id);
+            }
+            return current;
+        });
+        requests.increment();
+        return pending.acknowledgement();
+    }
+
+    private void schedule(String id) {
+        taskScheduler.schedule(() -> flush(id), Instant.now().plus(properties.getWindow()));
+    }
+
+    private void flush(String id) {
+        var batch = new ArrayList<Pending>();
+        lanes.computeIfPresent(id, (key, lane) -> {
+            lane.scheduled = false;
+            lane.flushing = true;
+            while (!lane.buffer.isEmpty() && batch.size() < properties.getMaxBatchSize()) {
+                batch.add(lane.buffer.poll());
+            }
+            return lane;
+        });
+
+        var live = new ArrayList<Pending>(batch.size());
+        for (var pending : batch) {
+            if (pending.deadline().isExpired()) {
+                pending.acknowledgement().completeExceptionally(new DeadlineExceededException(
+                        pending.deadline().isCancelled() ? Constants.REQUEST_CANCELLED : Constants.DEADLINE_EXCEEDED));
+            } else {
+                live.add(pending);
+            }
+        }
+        if (live.isEmpty()) {
+            release(id);
+            return;
+        }
+
+        write(id, live).whenComplete((ignored, error) -> release(id));
+    }
+
+    // A rejected batch is retried patch by patch so only the offending caller sees the error.
+    private CompletableFuture<Void> write(String id, List<Pending> batch) {
+        return apply(id, batch).handle((acknowledgement, error) -> {
+            var cause = unwrap(error);
+            if (cause == null) {
+                batch.forEach(pending -> pending.acknowledgement().complete(acknowledgement));
+            } else if (batch.size() > 1 && isCausedByPatch(cause)) {
+                return applyOneByOne(id, batch);
+            } else {
+                batch.forEach(pending -> pending.acknowledgement().completeExceptionally(cause));
+            }
+            return CompletableFuture.<Void>completedFuture(null);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Void> applyOneByOne(String id, List<Pending> batch) {
+        var chain = CompletableFuture.<Void>completedFuture(null);
+        for (var pending : batch) {
+            chain = chain.thenCompose(ignored -> apply(id, List.of(pending)).handle((acknowledgement, error) -> {
+                var cause = unwrap(error);
+                if (cause == null) {
+                    pending.acknowledgement().complete(acknowledgement);
+                } else {
+                    pending.acknowledgement().completeExceptionally(cause);
+                }
+                return null;
+            }));
+        }
+        return chain;
+    }
+
+    // Runs on the scheduler, so it carries the tightest deadline and latest consistency token of its callers.
+    private CompletableFuture<Acknowledgement> apply(String id, List<Pending> batch) {
+        var previousDeadline = RequestDeadline.current();
+        var previousContext = ConsistencyContext.current();
+        RequestDeadline.set(tightestDeadline(batch));
+        var context = ConsistencyContext.fork();
+        context.setAfterClusterTime(latestClusterTime(batch));
+        ConsistencyContext.set(context);
+        try {
+            writes.increment();
+            List<ProductService.Patch> patches = batch.stream().map(Pending::patch).toList();
+            return bulkheadService.submit(Bulkhead.WRITE, () -> {
+                var product = productService.patch(id, patches);
+                return new Acknowledgement(product, ConsistencyContext.current().getOperationTime());
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            RequestDeadline.set(previousDeadline);
+            ConsistencyContext.set(previousContext);
+        }
+    }
+
+    private void release(String id) {
+        lanes.computeIfPresent(id, (key, lane) -> {
+            lane.flushing = false;
+            if (lane.buffer.isEmpty()) {
+                return null;
+            }
+            lane.scheduled = true;
+            schedule(id);
+            return lane;
+        });
+    }
+
+    private static RequestDeadline tightestDeadline(List<Pending> batch) {
+        return RequestDeadline.detach(batch.stream()
+                .map(Pending::deadline)
+                .min(Comparator.comparing(deadline -> deadline.remaining().orElse(UNBOUNDED)))
+                .orElseThrow());
+    }
+
+    private static BsonTimestamp latestClusterTime(List<Pending> batch) {
+        return batch.stream()
+                .map(Pending::afterClusterTime)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private static boolean isCausedByPatch(Throwable cause) {
+        return cause instanceof GenericException || cause instanceof DuplicatedException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    public record Acknowledgement(ProductDTO product, BsonTimestamp operationTime) {
+    }
+
+    private record Pending(ProductService.Patch patch, CompletableFuture<Acknowledgement> acknowledgement,
+                           RequestDeadline deadline, BsonTimestamp afterClusterTime) {
+    }
+
+    private static final class Lane {
+
+        private final Queue<Pending> buffer = new ArrayDeque<>();
+
+        private boolean scheduled;
+
+        private boolean flushing;
+    }
+}
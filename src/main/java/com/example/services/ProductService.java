@@ -2,85 +2,318 @@ package com.example.services;
 
 
 import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
 import com.example.domains.dto.ProductDTO;
+import com.example.domains.dto.ProductSuggestionDTO;
 import com.example.exceptions.NotFoundException;
-import com.example.repositories.ProductRepository;
 import com.example.repositories.ProductRepositoryCustom;
+import com.example.repositories.ProductTombstoneRepository;
+import com.example.utils.ConsistencyContext;
 import com.example.utils.Constants;
+import com.example.utils.Profiler;
+import com.example.utils.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.stereotype.Service;
 
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static com.example.mappers.ProductMapper.INSTANCE;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
-    private final ProductRepository repository;
-
     private final ProductRepositoryCustom repositoryCustom;
 
+    private final ProductTombstoneRepository tombstoneRepository;
+
+    private final SearchCacheService searchCache;
+
+    private final WriteEpochService writeEpoch;
+
+    private final AttributeOffloadService attributeOffload;
+
+    private final AttributeBucketService attributeBuckets;
+
+    private final AutocompleteService autocomplete;
+
+    private final AttributeUsageService attributeUsage;
+
+    private final SingleFlight<String, Product> findByIdFlights = new SingleFlight<>();
+
+    private final SingleFlight<SearchFlightKey, Page<Product>> findByKeywordFlights = new SingleFlight<>();
+
     public ProductDTO create(ProductDTO productDTO) {
         var product = INSTANCE.toProductEntity(productDTO);
-        return saveProduct(null, product);
+        return saveProduct(null, product, Map.of());
     }
 
     public ProductDTO patch(String id, String index, ProductDTO productDTO) {
+        return patch(id, List.of(new Patch(index, productDTO)));
+    }
+
+    public ProductDTO patch(String id, List<Patch> patches) {
         Product existingProduct = findProductById(id);
 
-        if (!StringUtils.isEmpty(productDTO.getDescription())) {
-            existingProduct.setDescription(productDTO.getDescription());
+        patches.stream()
+                .map(patch -> patch.product().getDescription())
+                .filter(description -> !StringUtils.isEmpty(description))
+                .reduce((first, last) -> last)
+                .ifPresent(existingProduct::setDescription);
+
+        var hasAttributes = patches.stream().anyMatch(patch -> patch.product().getAttributes() != null);
+        var keys = patches.stream()
+                .map(patch -> patch.product().getAttributes())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(Attribute::getKey)
+                .collect(Collectors.toSet());
+        UnaryOperator<List<Attribute>> mutation = attributes -> {
+            var patched = attributes;
+            for (var patch : patches) {
+                if (patch.product().getAttributes() != null) {
+                    var current = patched;
+                    patched = Profiler.record(Constants.PROFILING_LAYER_MAPPER, "patchAttributes",
+                            () -> INSTANCE.patchAttributes(patch.product().getAttributes(), current, patch.index()));
+                }
+            }
+            return patched;
+        };
+
+        if (attributeBuckets.isBucketed(existingProduct)) {
+            var productUpdated = saveBuckets(existingProduct, keys, mutation);
+            if (attributeBuckets.isBucketed(productUpdated)) {
+                productUpdated.setAttributes(attributeBuckets.load(productUpdated));
+            }
+            return INSTANCE.toProductDTO(productUpdated);
         }
 
-        if (productDTO.getAttributes() != null) {
-            var attributes = INSTANCE.patchAttributes(productDTO.getAttributes(), existingProduct.getAttributes(), index);
-            existingProduct.setAttributes(attributes);
+        var previousReferences = attributeOffload.references(existingProduct.getAttributes());
+
+        if (hasAttributes) {
+            var existingAttributes = attributeOffload.resolve(existingProduct.getAttributes(), keys::contains);
+            existingProduct.setAttributes(mutation.apply(existingAttributes));
         }
 
-        return saveProduct(id, existingProduct);
+        return saveProduct(id, existingProduct, previousReferences);
     }
 
     public ProductDTO update(String id, ProductDTO productDTO) {
         var existingProduct = findProductById(id);
+        if (attributeBuckets.isBucketed(existingProduct)) {
+            existingProduct.setAttributes(attributeBuckets.load(existingProduct));
+        }
+        var previousReferences = attributeOffload.references(existingProduct.getAttributes());
         var existingAttributes = existingProduct.getAttributes();
 
-        var updatedAttributes = INSTANCE.updateAttributes(productDTO.getAttributes(), existingAttributes);
+        var updatedAttributes = Profiler.record(Constants.PROFILING_LAYER_MAPPER, "updateAttributes",
+                () -> INSTANCE.updateAttributes(productDTO.getAttributes(), existingAttributes));
         existingProduct.setDescription(productDTO.getDescription());
 
         existingProduct.setAttributes(updatedAttributes);
-        return saveProduct(id, existingProduct);
+        return saveProduct(id, existingProduct, previousReferences);
     }
 
-    public Page<ProductDTO> findByKeyword(String keyword, Pageable pageable) {
-        return repositoryCustom.findByKeyword(keyword, pageable).map(INSTANCE::toProductDTO);
+    public Page<ProductDTO> findByKeyword(String keyword, Pageable pageable, Duration maxStale) {
+        var key = new SearchCacheService.Key(Normalizer.normalize(keyword.strip(), Normalizer.Form.NFC), pageable);
+        if (isCausallyConsistent()) {
+            var page = repositoryCustom.findByKeyword(key.keyword(), pageable);
+            attributeBuckets.assemble(page.getContent());
+            return Profiler.record(Constants.PROFILING_LAYER_MAPPER, "toProductDTO", () -> page.map(INSTANCE::toProductDTO));
+        }
+        var epoch = writeEpoch.current();
+        var products = searchCache.get(key, epoch, maxStale)
+                .orElseGet(() -> findByKeywordFlights.execute(new SearchFlightKey(key, epoch), () -> {
+                    var page = repositoryCustom.findByKeyword(key.keyword(), pageable);
+                    attributeBuckets.assemble(page.getContent());
+                    searchCache.put(key, epoch, page);
+                    return page;
+                }));
+        return Profiler.record(Constants.PROFILING_LAYER_MAPPER, "toProductDTO", () -> products.map(INSTANCE::toProductDTO));
     }
-    public ProductDTO findById(String id) {
-        var product = findProductById(id);
-        return INSTANCE.toProductDTO(product);
+    public Page<ProductDTO> findByAttribute(String key, String value, Pageable pageable) {
+        var startedAt = System.nanoTime();
+        var page = repositoryCustom.findByAttribute(key.strip(), value == null ? null : value.strip(), pageable);
+        attributeUsage.record(key.strip(), System.nanoTime() - startedAt);
+        attributeBuckets.assemble(page.getContent());
+        return Profiler.record(Constants.PROFILING_LAYER_MAPPER, "toProductDTO", () -> page.map(INSTANCE::toProductDTO));
+    }
+
+    public void streamByKeyword(String keyword, Sort sort, Consumer<ProductDTO> consumer) {
+        repositoryCustom.streamByKeyword(Normalizer.normalize(keyword.strip(), Normalizer.Form.NFC), sort, product -> {
+            attributeBuckets.assemble(List.of(product));
+            consumer.accept(INSTANCE.toProductDTO(product));
+        });
+    }
+
+    public List<ProductSuggestionDTO> autocomplete(String prefix, int limit) {
+        return autocomplete.suggest(prefix, limit);
+    }
+
+    public ProductDTO findById(String id, Set<String> expand) {
+        var productDTO = INSTANCE.toProductDTO(findOne(id));
+        if (!expand.isEmpty()) {
+            productDTO.setAttributes(attributeOffload.resolve(productDTO.getAttributes(), expand::contains));
+        }
+        return productDTO;
+    }
+
+    public GridFsResource openAttributeValue(String id, String key) {
+        var attribute = Optional.ofNullable(findOne(id).getAttributes()).orElse(List.of()).stream()
+                .filter(existing -> existing.getKey().equals(key) && existing.getValueRef() != null)
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(Constants.NOT_FOUND));
+        return attributeOffload.open(attribute.getValueRef());
     }
 
     public void deleteByAttribute(String id, String attribute, String value) {
         var product = findProductById(id);
-        INSTANCE.deleteAttributes(attribute, value, product.getAttributes());
-        repository.save(product);
+        var key = attribute.split("\\.")[0];
+        if (attributeBuckets.isBucketed(product)) {
+            saveBuckets(product, Set.of(key), attributes -> {
+                Profiler.run(Constants.PROFILING_LAYER_MAPPER, "deleteAttributes", () -> INSTANCE.deleteAttributes(attribute, value, attributes));
+                return attributes;
+            });
+            return;
+        }
+
+        var previousReferences = attributeOffload.references(product.getAttributes());
+        product.setAttributes(attributeOffload.resolve(product.getAttributes(), key::equals));
+        Profiler.run(Constants.PROFILING_LAYER_MAPPER, "deleteAttributes", () -> INSTANCE.deleteAttributes(attribute, value, product.getAttributes()));
+        attributeOffload.offload(product.getAttributes(), previousReferences);
+        repositoryCustom.persist(product);
+        afterWrite(id);
     }
 
     public void delete(String id) {
-        findProductById(id);
-        repository.deleteById(findProductById(id).getId());
+        remove(findProductById(id));
+    }
+
+    public void remove(Product product) {
+        var id = product.getId();
+        repositoryCustom.tombstone(id);
+        try {
+            repositoryCustom.remove(id);
+        } catch (RuntimeException e) {
+            tombstoneRepository.deleteById(id);
+            throw e;
+        }
+        if (attributeBuckets.isBucketed(product)) {
+            attributeBuckets.delete(id);
+        }
+        autocomplete.remove(id);
+        afterWrite(id);
+    }
+
+    private Product findOne(String id) {
+        if (isCausallyConsistent()) {
+            return loadOne(id);
+        }
+        return findByIdFlights.execute(id, () -> loadOne(id));
+    }
+
+    private Product loadOne(String id) {
+        var product = repositoryCustom.findOne(id)
+                .orElseThrow(() -> new NotFoundException(Constants.NOT_FOUND));
+        attributeBuckets.assemble(List.of(product));
+        return product;
+    }
+
+    // A token needs a read at or after the caller's own write, which a cached page or shared flight cannot promise.
+    private boolean isCausallyConsistent() {
+        return ConsistencyContext.current().getAfterClusterTime() != null;
     }
 
     private Product findProductById(String id) {
-        return repository.findById(id)
+        return repositoryCustom.findForUpdate(id)
                 .orElseThrow(() -> new NotFoundException(Constants.NOT_FOUND));
     }
 
-    private ProductDTO saveProduct(String id, Product product) {
+    private ProductDTO saveProduct(String id, Product product, Map<String, String> previousReferences) {
+        return INSTANCE.toProductDTO(persistProduct(id, product, previousReferences));
+    }
+
+    private Product persistProduct(String id, Product product, Map<String, String> previousReferences) {
         product.setId(id);
-        var productUpdated = repository.save(product);
-        return INSTANCE.toProductDTO(productUpdated);
+        var attributes = product.getAttributes();
+        attributeOffload.offload(attributes, previousReferences);
+
+        Product productUpdated;
+        if (attributeBuckets.shouldBucket(product)) {
+            if (product.getId() == null) {
+                product.setId(ObjectId.get().toHexString());
+            }
+            var buckets = attributeBuckets.bucketCount(attributes.size());
+            attributeBuckets.store(product.getId(), buckets, attributes);
+            product.setAttributeBuckets(buckets);
+            product.setAttributes(new ArrayList<>());
+            productUpdated = repositoryCustom.persist(product);
+            attributeBuckets.trim(productUpdated.getId(), buckets);
+            productUpdated.setAttributes(attributes);
+        } else {
+            var wasBucketed = attributeBuckets.isBucketed(product);
+            product.setAttributeBuckets(null);
+            productUpdated = repositoryCustom.persist(product);
+            if (wasBucketed) {
+                attributeBuckets.delete(productUpdated.getId());
+            }
+        }
+
+        autocomplete.put(productUpdated.getId(), productUpdated.getDescription());
+        afterWrite(productUpdated.getId());
+        return productUpdated;
+    }
+
+    private Product saveBuckets(Product product, Set<String> keys, UnaryOperator<List<Attribute>> mutation) {
+        var buckets = product.getAttributeBuckets();
+        var changedBuckets = attributeBuckets.bucketsFor(keys, buckets);
+        var currentAttributes = attributeBuckets.load(product.getId(), changedBuckets);
+        var previousReferences = attributeOffload.references(currentAttributes);
+        var attributes = mutation.apply(attributeOffload.resolve(currentAttributes, keys::contains));
+
+        if (attributeBuckets.exceedsBucketSize(attributes, buckets)) {
+            var unchangedBuckets = IntStream.range(0, buckets).boxed().filter(bucket -> !changedBuckets.contains(bucket)).toList();
+            var allAttributes = attributeBuckets.load(product.getId(), unchangedBuckets);
+            allAttributes.addAll(attributes);
+            product.setAttributes(allAttributes);
+            return persistProduct(product.getId(), product, previousReferences);
+        }
+
+        attributeOffload.offload(attributes, previousReferences);
+        attributeBuckets.store(product.getId(), buckets, changedBuckets, attributes);
+        product.setAttributes(new ArrayList<>());
+        var productUpdated = repositoryCustom.persist(product);
+        productUpdated.setAttributes(attributes);
+        autocomplete.put(productUpdated.getId(), productUpdated.getDescription());
+        afterWrite(productUpdated.getId());
+        return productUpdated;
+    }
+
+    private void afterWrite(String id) {
+        writeEpoch.bump();
+        findByIdFlights.forget(id);
+    }
+
+    public record Patch(String index, ProductDTO product) {
+    }
+
+    private record SearchFlightKey(SearchCacheService.Key key, long epoch) {
     }
 }
@@ -0,0 +1,267 @@
+package com.example.services;
+
+import com.example.configurations.ProfilingPropertiesConfig;
+import com.example.domains.dto.ProfilingSummary;
+import com.example.utils.Constants;
+import com.example.utils.OperationEvent;
+import com.example.utils.Profiler;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class ProfilingService {
+
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String APPLICATION_PACKAGE = "com.example.";
+    private static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final ProfilingPropertiesConfig properties;
+
+    private Recording recording;
+
+    private Path destination;
+
+    private ProfilingSummary summary;
+
+    public ProfilingService(ProfilingPropertiesConfig properties) {
+        this.properties = properties;
+        Profiler.setEnabled(properties.getEnabled());
+    }
+
+    public boolean isEnabled() {
+        return properties.getEnabled();
+    }
+
+    public synchronized ProfilingSummary start(Duration requested) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        close();
+
+        var duration = Optional.ofNullable(requested).orElse(properties.getDefaultDuration());
+        if (duration.compareTo(properties.getMaxDuration()) > 0) {
+            duration = properties.getMaxDuration();
+        }
+        try {
+            destination = Files.createTempFile("profiling-", ".jfr");
+            recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            recording.setName(Constants.PROFILING_RECORDING_NAME);
+            recording.enable(OperationEvent.NAME).withThreshold(Duration.ZERO);
+            SENSITIVE_EVENTS.forEach(recording::disable);
+            recording.setToDisk(true);
+            recording.setDestination(destination);
+            recording.setDuration(duration);
+            recording.start();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "start", Constants.PROFILING_STARTED + duration);
+        return status();
+    }
+
+    public synchronized ProfilingSummary status() {
+        if (recording == null) {
+            return ProfilingSummary.builder().state(RecordingState.NEW.name()).build();
+        }
+        // A recording bounded by its duration reports STOPPED before its file is written; only CLOSED is complete.
+        if (recording.getState() != RecordingState.CLOSED) {
+            return describe(ProfilingSummary.builder()).build();
+        }
+        if (summary == null) {
+            summary = summarize();
+        }
+        return summary;
+    }
+
+    public synchronized Optional<Resource> recording(long id) {
+        if (recording == null || recording.getId() != id || recording.getState() != RecordingState.CLOSED
+                || destination == null || !Files.exists(destination)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(destination));
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (destination != null) {
+            try {
+                Files.deleteIfExists(destination);
+            } catch (IOException e) {
+                log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "close", e.getMessage());
+            }
+            destination = null;
+        }
+        summary = null;
+    }
+
+    private ProfilingSummary.ProfilingSummaryBuilder describe(ProfilingSummary.ProfilingSummaryBuilder builder) {
+        return builder.recordingId(recording.getId())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime())
+                .durationSeconds(Optional.ofNullable(recording.getDuration()).map(Duration::toSeconds).orElse(null));
+    }
+
+    private ProfilingSummary summarize() {
+        var spans = new ArrayList<Span>();
+        var operations = new HashMap<String, Accumulator>();
+        var allocations = new HashMap<String, Long>();
+        var cpu = new HashMap<String, Long>();
+
+        try (var file = new RecordingFile(destination)) {
+            while (file.hasMoreEvents()) {
+                var event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case OperationEvent.NAME -> {
+                        var layer = event.getString("layer");
+                        var nanos = event.getDuration().toNanos();
+                        var thread = event.getThread() == null ? -1 : event.getThread().getJavaThreadId();
+                        spans.add(new Span(thread, event.getStartTime(), event.getEndTime(), layer));
+                        operations.computeIfAbsent(layer + "#" + event.getString("operation"),
+                                key -> new Accumulator(layer, event.getString("operation"))).add(nanos);
+                    }
+                    case ALLOCATION_SAMPLE -> frame(event).ifPresent(frame -> allocations.merge(frame, event.getLong("weight"), Long::sum));
+                    case EXECUTION_SAMPLE -> frame(event).ifPresent(frame -> cpu.merge(frame, 1L, Long::sum));
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return describe(ProfilingSummary.builder())
+                .layers(timings(selfTimes(spans)))
+                .operations(timings(operations))
+                .topAllocationFrames(top(allocations))
+                .topCpuFrames(top(cpu))
+                .build();
+    }
+
+    // Layers nest on a thread (the service span holds its database and mapper spans), so each layer is given only
+    // its self time: its span minus the spans directly nested in it.
+    private Map<String, Accumulator> selfTimes(List<Span> spans) {
+        spans.sort(Comparator.comparingLong(Span::thread).thenComparing(Span::start).thenComparing(Span::end, Comparator.reverseOrder()));
+        var selfNanos = new long[spans.size()];
+        var open = new ArrayDeque<Integer>();
+        for (int i = 0; i < spans.size(); i++) {
+            var span = spans.get(i);
+            selfNanos[i] = Duration.between(span.start(), span.end()).toNanos();
+            while (!open.isEmpty() && (spans.get(open.peek()).thread() != span.thread() || !spans.get(open.peek()).end().isAfter(span.start()))) {
+                open.pop();
+            }
+            if (!open.isEmpty()) {
+                selfNanos[open.peek()] -= selfNanos[i];
+            }
+            open.push(i);
+        }
+
+        var layers = new HashMap<String, Accumulator>();
+        for (int i = 0; i < spans.size(); i++) {
+            var layer = spans.get(i).layer();
+            layers.computeIfAbsent(layer, key -> new Accumulator(layer, null)).add(Math.max(0, selfNanos[i]));
+        }
+        return layers;
+    }
+
+    private Optional<String> frame(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return Optional.empty();
+        }
+        var frames = stackTrace.getFrames();
+        var selected = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        var method = selected.getMethod();
+        return Optional.of(method.getType().getName() + "." + method.getName() + ":" + selected.getLineNumber());
+    }
+
+    private List<ProfilingSummary.Timing> timings(Map<String, Accumulator> accumulators) {
+        return accumulators.values().stream()
+                .sorted(Comparator.comparingLong(Accumulator::totalNanos).reversed())
+                .limit(properties.getTopFrames())
+                .map(Accumulator::toTiming)
+                .toList();
+    }
+
+    private List<ProfilingSummary.FrameSample> top(Map<String, Long> samples) {
+        return samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(properties.getTopFrames())
+                .map(entry -> new ProfilingSummary.FrameSample(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private record Span(long thread, Instant start, Instant end, String layer) {
+    }
+
+    private static final class Accumulator {
+
+        private final String layer;
+
+        private final String operation;
+
+        private long count;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        private Accumulator(String layer, String operation) {
+            this.layer = layer;
+            this.operation = operation;
+        }
+
+        private void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private long totalNanos() {
+            return totalNanos;
+        }
+
+        private ProfilingSummary.Timing toTiming() {
+            return ProfilingSummary.Timing.builder()
+                    .layer(layer)
+                    .operation(operation)
+                    .count(count)
+                    .totalMillis(totalNanos / 1_000_000.0)
+                    .maxMillis(maxNanos / 1_000_000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.services;
+
+import com.example.configurations.QueryAdvisorPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.QueryShapeReport;
+import com.example.repositories.QueryShapeRecorder;
+import com.example.utils.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryAdvisorService {
+
+    private static final Set<String> RANGE_OPERATORS = Set.of("$gt", "$gte", "$lt", "$lte");
+    private static final String STAGE_COLLSCAN = "COLLSCAN";
+    private static final String STAGE_SORT = "SORT";
+    private static final String KEY_ID = "_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final QueryShapeRecorder queryShapeRecorder;
+
+    private final QueryAdvisorPropertiesConfig properties;
+
+    public List<QueryShapeReport> analyze() {
+        var indexes = mongoTemplate.indexOps(Product.class).getIndexInfo();
+        return queryShapeRecorder.getSamples().stream()
+                .map(sample -> analyze(sample, indexes))
+                .toList();
+    }
+
+    public boolean isIndexCreationAllowed() {
+        return properties.getAllowIndexCreation();
+    }
+
+    public List<String> createSuggestedIndexes() {
+        var suggestions = new LinkedHashSet<Map<String, Integer>>();
+        analyze().forEach(report -> suggestions.addAll(report.getSuggestedIndexes()));
+
+        var indexOps = mongoTemplate.indexOps(Product.class);
+        return suggestions.stream()
+                .map(keys -> {
+                    var index = new Index();
+                    keys.forEach((key, direction) -> index.on(key, direction > 0 ? Sort.Direction.ASC : Sort.Direction.DESC));
+                    var name = indexOps.ensureIndex(index);
+                    log.info(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "createSuggestedIndexes", name);
+                    return name;
+                })
+                .toList();
+    }
+
+    private QueryShapeReport analyze(QueryShapeRecorder.QuerySample sample, List<IndexInfo> indexes) {
+        var explain = explain(sample);
+        var stages = new ArrayList<String>();
+        var indexesUsed = new ArrayList<String>();
+        var queryPlanner = explain.get("queryPlanner", Document.class);
+        var winningPlan = queryPlanner.get("winningPlan", Document.class);
+        if (winningPlan.containsKey("queryPlan")) {
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+        collectStages(winningPlan, stages, indexesUsed);
+
+        var stats = explain.get("executionStats", new Document());
+        long keysExamined = toLong(stats.get("totalKeysExamined"));
+        long docsExamined = toLong(stats.get("totalDocsExamined"));
+        long returned = toLong(stats.get("nReturned"));
+
+        var warnings = new ArrayList<String>();
+        if (stages.contains(STAGE_COLLSCAN)) {
+            warnings.add(Constants.ADVISOR_COLLSCAN);
+        }
+        double ratio = (double) (keysExamined + docsExamined) / Math.max(returned, 1);
+        if (ratio > properties.getExaminedRatioThreshold()) {
+            warnings.add(String.format(Constants.ADVISOR_EXAMINED_RATIO, ratio));
+        }
+        if (stages.contains(STAGE_SORT)) {
+            warnings.add(Constants.ADVISOR_IN_MEMORY_SORT + sample.getSort().keySet());
+        }
+
+        var suggestions = suggestIndexes(sample.getFilter(), sample.getSort(), warnings).stream()
+                .filter(keys -> !isCovered(keys, indexes))
+                .toList();
+
+        return QueryShapeReport.builder()
+                .shape(sample.getShape())
+                .operation(sample.getOperation())
+                .executions(sample.getCount().get())
+                .stages(stages)
+                .indexesUsed(indexesUsed)
+                .keysExamined(keysExamined)
+                .docsExamined(docsExamined)
+                .returned(returned)
+                .executionTimeMillis(toLong(stats.get("executionTimeMillis")))
+                .warnings(warnings)
+                .suggestedIndexes(suggestions)
+                .build();
+    }
+
+    private Document explain(QueryShapeRecorder.QuerySample sample) {
+        var find = new Document("find", mongoTemplate.getCollectionName(Product.class))
+                .append("filter", sample.getFilter());
+        if (!sample.getSort().isEmpty()) {
+            find.append("sort", sample.getSort());
+        }
+        if (sample.getLimit() > 0) {
+            find.append("limit", sample.getLimit());
+        }
+        return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "executionStats"));
+    }
+
+    private void collectStages(Document plan, List<String> stages, List<String> indexesUsed) {
+        if (plan == null) {
+            return;
+        }
+        stages.add(plan.getString("stage"));
+        if (plan.containsKey("indexName")) {
+            indexesUsed.add(plan.getString("indexName"));
+        }
+        for (var child : List.of("inputStage", "outerStage", "innerStage")) {
+            collectStages(plan.get(child, Document.class), stages, indexesUsed);
+        }
+        plan.getList("inputStages", Document.class, List.of()).forEach(child -> collectStages(child, stages, indexesUsed));
+    }
+
+    private List<Map<String, Integer>> suggestIndexes(Document filter, Document sort, List<String> warnings) {
+        var branches = new ArrayList<Document>();
+        var common = new Document(filter);
+        var or = common.remove("$or");
+        if (or instanceof List<?> orBranches) {
+            orBranches.forEach(branch -> {
+                var merged = new Document(common);
+                merged.putAll((Document) branch);
+                branches.add(merged);
+            });
+        } else {
+            branches.add(common);
+        }
+
+        var suggestions = new ArrayList<Map<String, Integer>>();
+        for (var branch : branches) {
+            var equality = new LinkedHashSet<String>();
+            var range = new LinkedHashSet<String>();
+            classify(null, branch, equality, range, warnings);
+
+            var keys = new LinkedHashMap<String, Integer>();
+            equality.forEach(field -> keys.put(field, 1));
+            sort.forEach((field, direction) -> keys.putIfAbsent(field, ((Number) direction).intValue()));
+            range.forEach(field -> keys.putIfAbsent(field, 1));
+
+            if (!keys.isEmpty() && !(keys.size() == 1 && keys.containsKey(KEY_ID)) && !suggestions.contains(keys)) {
+                suggestions.add(keys);
+            }
+        }
+        return suggestions;
+    }
+
+    private void classify(String prefix, Document filter, Set<String> equality, Set<String> range, List<String> warnings) {
+        filter.forEach((key, value) -> {
+            if ("$and".equals(key) && value instanceof List<?> clauses) {
+                clauses.forEach(clause -> classify(prefix, (Document) clause, equality, range, warnings));
+                return;
+            }
+            if (key.startsWith("$")) {
+                return;
+            }
+
+            var field = prefix == null ? key : prefix + "." + key;
+            if (value instanceof Pattern || value instanceof BsonRegularExpression) {
+                classifyRegex(field, value, range, warnings);
+            } else if (value instanceof Document operators) {
+                if (operators.get("$elemMatch") instanceof Document elemMatch) {
+                    classify(field, elemMatch, equality, range, warnings);
+                } else if (operators.containsKey("$regex")) {
+                    classifyRegex(field, operators.get("$regex"), range, warnings);
+                } else if (operators.keySet().stream().anyMatch(RANGE_OPERATORS::contains)) {
+                    range.add(field);
+                } else {
+                    equality.add(field);
+                }
+            } else {
+                equality.add(field);
+            }
+        });
+    }
+
+    private void classifyRegex(String field, Object regex, Set<String> range, List<String> warnings) {
+        String pattern;
+        boolean caseInsensitive;
+        if (regex instanceof Pattern javaPattern) {
+            pattern = javaPattern.pattern();
+            caseInsensitive = (javaPattern.flags() & Pattern.CASE_INSENSITIVE) != 0;
+        } else if (regex instanceof BsonRegularExpression bsonPattern) {
+            pattern = bsonPattern.getPattern();
+            caseInsensitive = bsonPattern.getOptions().contains("i");
+        } else {
+            pattern = String.valueOf(regex);
+            caseInsensitive = false;
+        }
+
+        if (pattern.startsWith("^") && !caseInsensitive) {
+            range.add(field);
+        } else {
+            var warning = Constants.ADVISOR_UNANCHORED_REGEX + field;
+            if (!warnings.contains(warning)) {
+                warnings.add(warning);
+            }
+        }
+    }
+
+    private boolean isCovered(Map<String, Integer> keys, List<IndexInfo> indexes) {
+        var fields = List.copyOf(keys.keySet());
+        return indexes.stream().anyMatch(index -> {
+            var indexFields = index.getIndexFields().stream().map(IndexField::getKey).toList();
+            return index.getPartialFilterExpression() == null
+                    && indexFields.size() >= fields.size()
+                    && indexFields.subList(0, fields.size()).equals(fields);
+        });
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
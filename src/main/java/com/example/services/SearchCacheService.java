@@ -0,0 +1,135 @@
+package com.example.services;
+
+import com.example.configurations.SearchCachePropertiesConfig;
+import com.example.domains.Product;
+import com.example.utils.Constants;
+import com.example.utils.ObjectSizeEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+@Service
+public class SearchCacheService {
+
+    private static final long FULLY_COUNTED = -1;
+
+    private final SearchCachePropertiesConfig properties;
+
+    private final AttributeInterningService attributeInterning;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private long totalBytes;
+
+    private long internGeneration;
+
+    public SearchCacheService(SearchCachePropertiesConfig properties, AttributeInterningService attributeInterning,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.attributeInterning = attributeInterning;
+        this.hits = meterRegistry.counter(Constants.METRIC_SEARCH_CACHE_HITS);
+        this.misses = meterRegistry.counter(Constants.METRIC_SEARCH_CACHE_MISSES);
+        Gauge.builder(Constants.METRIC_SEARCH_CACHE_BYTES, this, SearchCacheService::getTotalBytes).register(meterRegistry);
+        Gauge.builder(Constants.METRIC_SEARCH_CACHE_ENTRIES, this, SearchCacheService::getEntryCount).register(meterRegistry);
+    }
+
+    public Optional<Page<Product>> get(Key key, long epoch, Duration maxStale) {
+        if (!properties.getEnabled()) {
+            return Optional.empty();
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && (entry.epoch() == epoch || isWithinStaleness(entry, maxStale))) {
+            hits.increment();
+            return Optional.of(entry.page());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(Key key, long epoch, Page<Product> page) {
+        if (!properties.getEnabled()) {
+            return;
+        }
+
+        long maxBytes = properties.getMaxSize().toBytes();
+        long generation = attributeInterning.generation();
+        long size = ObjectSizeEstimator.estimate(page.getContent(), attributeInterning::isShared);
+        if (size > maxBytes) {
+            return;
+        }
+
+        synchronized (this) {
+            recountUnpinned(attributeInterning.generation());
+            var previous = entries.put(key, new Entry(epoch, System.nanoTime(), size, generation, page));
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += size;
+
+            var iterator = entries.values().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                totalBytes -= iterator.next().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    // Interned strings are free only while the dictionary pins them; after a clear, older entries count at full size.
+    private void recountUnpinned(long currentGeneration) {
+        if (currentGeneration == internGeneration) {
+            return;
+        }
+        internGeneration = currentGeneration;
+        for (var entry : entries.entrySet()) {
+            var value = entry.getValue();
+            if (value.generation() != FULLY_COUNTED && value.generation() != currentGeneration) {
+                long fullSize = ObjectSizeEstimator.estimate(value.page().getContent());
+                totalBytes += fullSize - value.size();
+                entry.setValue(new Entry(value.epoch(), value.createdAt(), fullSize, FULLY_COUNTED, value.page()));
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private boolean isWithinStaleness(Entry entry, Duration maxStale) {
+        if (maxStale == null || maxStale.isZero() || maxStale.isNegative()) {
+            return false;
+        }
+        var allowed = maxStale.compareTo(properties.getMaxStale()) < 0 ? maxStale : properties.getMaxStale();
+        return System.nanoTime() - entry.createdAt() <= allowed.toNanos();
+    }
+
+    public record Key(String keyword, Pageable pageable) {
+    }
+
+    private record Entry(long epoch, long createdAt, long size, long generation, Page<Product> page) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.services;
+
+import com.example.configurations.SearchCachePropertiesConfig;
+import com.example.domains.WriteEpoch;
+import com.example.utils.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves on every local write and, polled every epoch-refresh-interval, on every write by another instance.
+@Slf4j
+@Service
+public class WriteEpochService {
+
+    private static final String PRODUCTS = "products";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final SearchCachePropertiesConfig properties;
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private volatile Long sharedEpoch;
+
+    public WriteEpochService(MongoTemplate mongoTemplate, SearchCachePropertiesConfig properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    public long current() {
+        return epoch.get();
+    }
+
+    public long bump() {
+        var current = epoch.incrementAndGet();
+        if (properties.getEnabled() && properties.getSharedEpoch()) {
+            try {
+                var shared = mongoTemplate.findAndModify(new Query(Criteria.where(Constants.KEY_ID).is(PRODUCTS)),
+                        new Update().inc(Constants.KEY_EPOCH, 1),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        WriteEpoch.class);
+                if (shared != null) {
+                    sharedEpoch = shared.getEpoch();
+                }
+            } catch (RuntimeException e) {
+                log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "bump", e.getMessage());
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "#{@searchCachePropertiesConfig.epochRefreshInterval.toMillis()}")
+    public void refresh() {
+        if (!properties.getEnabled() || !properties.getSharedEpoch()) {
+            return;
+        }
+        try {
+            var shared = mongoTemplate.findById(PRODUCTS, WriteEpoch.class);
+            var latest = shared == null ? null : shared.getEpoch();
+            if (latest != null && !latest.equals(sharedEpoch)) {
+                sharedEpoch = latest;
+                epoch.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            log.warn(Constants.LOG_KEY_METHOD + Constants.LOG_KEY_MESSAGE, "refresh", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.utils;
+
+import org.bson.BsonTimestamp;
+
+public final class ConsistencyContext {
+
+    private static final ThreadLocal<ConsistencyContext> CURRENT = ThreadLocal.withInitial(ConsistencyContext::new);
+
+    private BsonTimestamp afterClusterTime;
+
+    private BsonTimestamp operationTime;
+
+    private ConsistencyContext() {
+    }
+
+    public static ConsistencyContext current() {
+        return CURRENT.get();
+    }
+
+    public static ConsistencyContext fork() {
+        var context = new ConsistencyContext();
+        context.afterClusterTime = current().afterClusterTime;
+        return context;
+    }
+
+    public static void set(ConsistencyContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public BsonTimestamp getAfterClusterTime() {
+        return afterClusterTime;
+    }
+
+    public void setAfterClusterTime(BsonTimestamp afterClusterTime) {
+        this.afterClusterTime = afterClusterTime;
+    }
+
+    public BsonTimestamp getOperationTime() {
+        return operationTime;
+    }
+
+    public void setOperationTime(BsonTimestamp operationTime) {
+        this.operationTime = operationTime;
+    }
+
+    public static BsonTimestamp parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        var parts = token.split("\\.");
+        if (parts.length != 2) {
+            throw new NumberFormatException(Constants.INVALID_CONSISTENCY_TOKEN + token);
+        }
+        return new BsonTimestamp(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    public static String toToken(BsonTimestamp timestamp) {
+        return timestamp.getTime() + "." + timestamp.getInc();
+    }
+}
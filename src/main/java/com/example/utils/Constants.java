@@ -1,5 +1,7 @@
 package com.example.utils;
 
+import org.springframework.http.MediaType;
+
 
 public class Constants {
 
@@ -30,7 +32,86 @@ public class Constants {
     public static final Integer BATCH_SIZE = 15000;
     public static final Integer ONE = 1;
     public static final String KEY_ID = "id";
+    public static final String KEY_CLASS = "_class";
+    public static final String KEY_PRODUCT_ID = "productId";
     public static final String DUPLICATION_DESCRIPTION = "Já existe uma descrição cadastrada com esse conteúdo";
     public static final String DESCRIPTION_NOT_NULL = "A descrição não pode ser nula";
     public static final String DESCRIPTION_MAX_LENGTH = "O tamanho do campo descrição deve ter entre 3 e 1000 caracteres";
+    public static final String BULKHEAD_FULL = "Capacidade esgotada para requisições do tipo ";
+    public static final String RETRY_AFTER = "Retry-After";
+    public static final String METRIC_TAG_BULKHEAD = "bulkhead";
+    public static final String METRIC_BULKHEAD_QUEUE_DEPTH = "bulkhead.queue.depth";
+    public static final String METRIC_BULKHEAD_ACTIVE = "bulkhead.active";
+    public static final String METRIC_BULKHEAD_REJECTED = "bulkhead.rejected";
+    public static final String METRIC_SEARCH_CACHE_HITS = "search.cache.hits";
+    public static final String METRIC_SEARCH_CACHE_MISSES = "search.cache.misses";
+    public static final String METRIC_SEARCH_CACHE_BYTES = "search.cache.bytes";
+    public static final String METRIC_SEARCH_CACHE_ENTRIES = "search.cache.entries";
+    public static final String X_CONSISTENCY_TOKEN = "X-Consistency-Token";
+    public static final String INVALID_CONSISTENCY_TOKEN = "Token de consistência inválido: ";
+    public static final String ADVISOR_COLLSCAN = "COLLSCAN: a consulta percorre a coleção inteira";
+    public static final String ADVISOR_EXAMINED_RATIO = "Razão documentos examinados/retornados alta: %.1f";
+    public static final String ADVISOR_IN_MEMORY_SORT = "Ordenação em memória nos campos ";
+    public static final String ADVISOR_UNANCHORED_REGEX = "Regex sem âncora ou case-insensitive não aproveita índice no campo ";
+    public static final String METRIC_PROCESS_RSS = "process.memory.rss";
+    public static final String STARTUP_COMPLETED = "Aplicação iniciada";
+    public static final String STARTUP_METRICS = "startupMs=%d jvmUptimeMs=%d rssMb=%.0f";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    public static final Integer STREAM_CHUNK_SIZE = 64 * 1024;
+    public static final String COLLATION_LOCALE = "pt";
+    public static final String AUTOCOMPLETE_READY = "Índice de autocomplete carregado, descrições: ";
+    public static final String KEY_DELETED_AT = "deletedAt";
+    public static final String INVALID_CHANGE_TOKEN = "Token de alterações inválido: ";
+    public static final String CHANGE_STREAM_STARTED = "Change stream de produtos iniciado";
+    public static final String KEY_MONGO_ID = "_id";
+    public static final String CHANGE_STREAM_DISABLED = "Stream de alterações desabilitado";
+    public static final String METRIC_INTERN_ENTRIES = "attribute.intern.entries";
+    public static final String METRIC_INTERN_HITS = "attribute.intern.hits";
+    public static final String METRIC_INTERN_BYTES_SAVED = "attribute.intern.bytes.saved";
+    public static final String X_REQUEST_TIMEOUT = "X-Request-Timeout";
+    public static final String INVALID_REQUEST_TIMEOUT = "Tempo limite da requisição inválido: ";
+    public static final String DEADLINE_EXCEEDED = "Tempo limite da requisição excedido";
+    public static final String REQUEST_CANCELLED = "Requisição cancelada pelo cliente";
+    public static final String METRIC_DEADLINE_EXCEEDED = "request.deadline.exceeded";
+    public static final String METRIC_REQUEST_CANCELLED = "request.cancelled";
+    public static final String KEY_ATTRIBUTE_BUCKETS = "attributeBuckets";
+    public static final String KEY_STATUS = "status";
+    public static final String KEY_LOCKED_UNTIL = "lockedUntil";
+    public static final String KEYWORD_NOT_NULL = "O filtro de busca não pode ser nulo";
+    public static final String DELETE_JOB_BATCH = "Lote removido: ";
+    public static final String METRIC_BULK_DELETE_DELETED = "bulk.delete.deleted";
+    public static final String METRIC_BULK_DELETE_FAILED = "bulk.delete.failed";
+    public static final String KEY_TOTAL = "total";
+    public static final String KEY_DELETED = "deleted";
+    public static final String KEY_FAILED = "failed";
+    public static final String KEY_LAST_ID = "lastId";
+    public static final String KEY_ERROR = "error";
+    public static final String KEY_STARTED_AT = "startedAt";
+    public static final String KEY_FINISHED_AT = "finishedAt";
+    public static final String KEY_ATTEMPTS = "attempts";
+    public static final String DELETE_JOB_RETRY = "Lote será repetido, tentativa ";
+    public static final String DELETE_JOB_LEASE_LOST = "Concessão do job perdida: ";
+    public static final String METRIC_PATCH_COALESCED_REQUESTS = "patch.coalescing.requests";
+    public static final String METRIC_PATCH_COALESCED_WRITES = "patch.coalescing.writes";
+    public static final String METRIC_PATCH_COALESCED_REJECTED = "patch.coalescing.rejected";
+    public static final String PATCH_LANE_FULL = "Fila de alterações esgotada para o produto ";
+    public static final String PROFILING_LAYER_SERVICE = "service";
+    public static final String PROFILING_LAYER_MAPPER = "mapper";
+    public static final String PROFILING_LAYER_DATABASE = "database";
+    public static final String PROFILING_LAYER_SERIALIZATION = "serialization";
+    public static final String PROFILING_OPERATION_WRITE = "WRITE";
+    public static final String PROFILING_RECORDING_NAME = "dynamic-attributes-profiling";
+    public static final String PROFILING_STARTED = "Gravação JFR iniciada por ";
+    public static final String KEY_KEY = "key";
+    public static final String ATTRIBUTE_OFFLOAD_COLLECTED = "Arquivos de atributos sem referência removidos: ";
+    public static final String ATTRIBUTE_INDEX_PREFIX = "attr_";
+    public static final String ATTRIBUTE_INDEX_CREATED = "Índice parcial de atributo criado: ";
+    public static final String ATTRIBUTE_INDEX_DROPPED = "Índice parcial de atributo removido: ";
+    public static final String ATTRIBUTE_INDEX_UNKNOWN_SELECTIVITY = "Seletividade desconhecida, chave ausente na amostra: ";
+    public static final String METRIC_ATTRIBUTE_INDEX_CREATED = "attribute.index.created";
+    public static final String METRIC_ATTRIBUTE_INDEX_DROPPED = "attribute.index.dropped";
+    public static final String METRIC_ATTRIBUTE_INDEX_MANAGED = "attribute.index.managed";
+    public static final String ASYNC_REQUEST_TIMEOUT = "Tempo limite de processamento assíncrono esgotado";
+    public static final String KEY_EPOCH = "epoch";
 }
@@ -0,0 +1,66 @@
+package com.example.utils;
+
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public final class ObjectSizeEstimator {
+
+    private static final long OBJECT_HEADER = 16;
+    private static final long REFERENCE = 8;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long BOXED_VALUE = 24;
+    private static final long TEMPORAL = 48;
+    private static final long COLLECTION_OVERHEAD = 40;
+    private static final long MAP_OVERHEAD = 48;
+    private static final long MAP_ENTRY = 32;
+    private static final long UNKNOWN = 64;
+
+    private ObjectSizeEstimator() {
+    }
+
+    public static long estimate(Object value) {
+        return estimate(value, string -> false);
+    }
+
+    public static long estimate(Object value, Predicate<String> shared) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return shared.test(string) ? 0 : STRING_OVERHEAD + string.length();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return BOXED_VALUE;
+        }
+        if (value instanceof Temporal) {
+            return TEMPORAL;
+        }
+        if (value instanceof Product product) {
+            return OBJECT_HEADER + 5 * REFERENCE + estimate(product.getId(), shared) + estimate(product.getDescription(), shared)
+                    + estimate(product.getAttributes(), shared) + estimate(product.getCreatedAt(), shared) + estimate(product.getUpdatedAt(), shared);
+        }
+        if (value instanceof Attribute attribute) {
+            return OBJECT_HEADER + 2 * REFERENCE + estimate(attribute.getKey(), shared) + estimate(attribute.getValue(), shared);
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = COLLECTION_OVERHEAD;
+            for (Object item : collection) {
+                size += REFERENCE + estimate(item, shared);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = MAP_OVERHEAD;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += MAP_ENTRY + estimate(entry.getKey(), shared) + estimate(entry.getValue(), shared);
+            }
+            return size;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(OperationEvent.NAME)
+@Label("Operation")
+@Category("Dynamic Attributes")
+@Description("Tempo gasto em uma operação de serviço, mapeamento, banco ou serialização")
+@StackTrace(false)
+public class OperationEvent extends Event {
+
+    public static final String NAME = "com.example.Operation";
+
+    @Label("Layer")
+    String layer;
+
+    @Label("Operation")
+    String operation;
+
+    public OperationEvent(String layer, String operation) {
+        this.layer = layer;
+        this.operation = operation;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.utils;
+
+import java.util.function.Supplier;
+
+public final class Profiler {
+
+    private static volatile boolean enabled;
+
+    private Profiler() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    public static <T> T record(String layer, String operation, Supplier<T> supplier) {
+        if (!enabled) {
+            return supplier.get();
+        }
+        var event = new OperationEvent(layer, operation);
+        if (!event.isEnabled()) {
+            return supplier.get();
+        }
+        event.begin();
+        try {
+            return supplier.get();
+        } finally {
+            event.commit();
+        }
+    }
+
+    public static void run(String layer, String operation, Runnable runnable) {
+        record(layer, operation, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.utils;
+
+import com.example.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = ThreadLocal.withInitial(RequestDeadline::new);
+
+    private volatile long deadlineNanos;
+
+    private volatile boolean bounded;
+
+    private volatile boolean cancelled;
+
+    private RequestDeadline() {
+        this.deadlineNanos = 0;
+        this.bounded = false;
+    }
+
+    private RequestDeadline(Duration timeout) {
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+        this.bounded = true;
+    }
+
+    private RequestDeadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    // Keeps the time limit but not the cancellation, for work shared by several callers.
+    public static RequestDeadline detach(RequestDeadline source) {
+        return new RequestDeadline(source.deadlineNanos, source.bounded);
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static RequestDeadline start(Duration timeout) {
+        var deadline = new RequestDeadline(timeout);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public Optional<Duration> remaining() {
+        if (!bounded) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return cancelled || (bounded && deadlineNanos - System.nanoTime() <= 0);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public synchronized void extendTo(RequestDeadline other) {
+        if (!bounded) {
+            return;
+        }
+        if (!other.bounded) {
+            bounded = false;
+        } else if (other.deadlineNanos - deadlineNanos > 0) {
+            deadlineNanos = other.deadlineNanos;
+        }
+    }
+
+    public long check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(cancelled ? Constants.REQUEST_CANCELLED : Constants.DEADLINE_EXCEEDED);
+        }
+        return remaining().map(Duration::toMillis).map(millis -> Math.max(millis, 1L)).orElse(0L);
+    }
+}
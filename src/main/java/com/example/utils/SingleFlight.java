@@ -0,0 +1,87 @@
+package com.example.utils;
+
+import com.example.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// The loader runs under a detached deadline extended to every waiter's, so one cancelled caller cannot fail the rest.
+public class SingleFlight<K, V> {
+
+    private static final long POLL_MILLIS = 50;
+
+    private final ConcurrentMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        var caller = RequestDeadline.current();
+        var call = new Call<V>(new CompletableFuture<>(), RequestDeadline.detach(caller));
+        var inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            inFlight.deadline().extendTo(caller);
+            return await(inFlight.result(), caller);
+        }
+
+        try {
+            V value = load(loader, call.deadline(), caller);
+            call.result().complete(value);
+            caller.check();
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    public void forgetAll() {
+        calls.clear();
+    }
+
+    private V load(Supplier<V> loader, RequestDeadline detached, RequestDeadline caller) {
+        RequestDeadline.set(detached);
+        try {
+            return loader.get();
+        } finally {
+            RequestDeadline.set(caller);
+        }
+    }
+
+    private V await(CompletableFuture<V> inFlight, RequestDeadline caller) {
+        try {
+            while (true) {
+                caller.check();
+                var wait = caller.remaining().map(Duration::toMillis).map(millis -> Math.max(Math.min(millis, POLL_MILLIS), 1L)).orElse(POLL_MILLIS);
+                try {
+                    return inFlight.get(wait, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // keep waiting while the caller's own deadline allows it
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException(Constants.REQUEST_CANCELLED);
+        }
+    }
+
+    private record Call<V>(CompletableFuture<V> result, RequestDeadline deadline) {
+    }
+}
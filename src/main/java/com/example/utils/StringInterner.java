@@ -0,0 +1,66 @@
+package com.example.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StringInterner {
+
+    private final ConcurrentMap<String, String> dictionary = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final int maxEntries;
+
+    private final int maxLength;
+
+    public StringInterner(int maxEntries, int maxLength) {
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+    }
+
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        var existing = dictionary.get(value);
+        if (existing != null) {
+            if (existing != value) {
+                hits.increment();
+                bytesSaved.add(ObjectSizeEstimator.estimate(value));
+            }
+            return existing;
+        }
+        if (dictionary.size() >= maxEntries) {
+            generation.incrementAndGet();
+            dictionary.clear();
+        }
+        existing = dictionary.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public boolean isInterned(String value) {
+        return value != null && dictionary.get(value) == value;
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+}
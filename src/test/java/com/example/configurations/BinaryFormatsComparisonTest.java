@@ -0,0 +1,70 @@
+package com.example.configurations;
+
+import com.example.domains.dto.Attribute;
+import com.example.domains.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFormatsComparisonTest {
+
+    private static final int PRODUCTS = 2_000;
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+
+    @Test
+    void binaryFormatsAreSmallerThanNdjson() throws IOException {
+        var products = products();
+        var writers = new LinkedHashMap<String, ObjectWriter>();
+        writers.put("ndjson", Jackson2ObjectMapperBuilder.json().build().writer().withRootValueSeparator("\n"));
+        writers.put("cbor", config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper().writer());
+        writers.put("smile", config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper().writer());
+
+        var sizes = new LinkedHashMap<String, Integer>();
+        for (Map.Entry<String, ObjectWriter> entry : writers.entrySet()) {
+            sizes.put(entry.getKey(), write(entry.getValue(), products));
+        }
+
+        assertThat(sizes.get("cbor")).isLessThan(sizes.get("ndjson"));
+        assertThat(sizes.get("smile")).isLessThan(sizes.get("ndjson"));
+    }
+
+    private static int write(ObjectWriter writer, List<ProductDTO> products) throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        try (var sequence = writer.writeValues(buffer)) {
+            for (var product : products) {
+                sequence.write(product);
+            }
+        }
+        return buffer.size();
+    }
+
+    private static List<ProductDTO> products() {
+        var products = new ArrayList<ProductDTO>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            var attributes = new ArrayList<Attribute>();
+            attributes.add(new Attribute("year", 2000 + i % 25));
+            attributes.add(new Attribute("price", 10.5 + i));
+            attributes.add(new Attribute("brand", "brand-" + i % 40));
+            attributes.add(new Attribute("color", List.of("red", "green", "blue")));
+            attributes.add(new Attribute("ids", List.of(i, i + 1, i + 2, i + 3)));
+            attributes.add(new Attribute("categories", List.of(Map.of("id", 1, "name", "Electronics"), Map.of("id", 2, "name", "Computers"))));
+            attributes.add(new Attribute("description", "Product description number " + i + " with a moderately long text"));
+            products.add(ProductDTO.builder()
+                    .id("648f0e313214234e611e%04x".formatted(i))
+                    .description("Product " + i)
+                    .attributes(attributes)
+                    .build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.configurations;
+
+import com.example.exceptions.GenericException;
+import com.example.utils.Constants;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ConsistencyTokenFilterTest {
+
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+
+    private final ConsistencyTokenFilter filter = new ConsistencyTokenFilter(exceptionResolver);
+
+    @Test
+    void invalidTokenIsAnsweredThroughTheExceptionHandlers() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader(Constants.X_CONSISTENCY_TOKEN, "not-a-token");
+        var response = new MockHttpServletResponse();
+        var chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        var error = ArgumentCaptor.forClass(Exception.class);
+        verify(exceptionResolver).resolveException(eq(request), eq(response), isNull(), error.capture());
+        assertThat(error.getValue()).isInstanceOf(GenericException.class);
+        assertThat(((GenericException) error.getValue()).getDescription()).isEqualTo(Constants.INVALID_CONSISTENCY_TOKEN + "not-a-token");
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void validTokenContinuesTheChain() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader(Constants.X_CONSISTENCY_TOKEN, "10.1");
+        var chain = mock(FilterChain.class);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+}
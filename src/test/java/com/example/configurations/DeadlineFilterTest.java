@@ -0,0 +1,60 @@
+package com.example.configurations;
+
+import com.example.exceptions.GenericException;
+import com.example.utils.Constants;
+import com.example.utils.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DeadlineFilterTest {
+
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+
+    private final DeadlineFilter filter = new DeadlineFilter(new DeadlinePropertiesConfig(), exceptionResolver);
+
+    @Test
+    void invalidTimeoutIsAnsweredThroughTheExceptionHandlers() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader(Constants.X_REQUEST_TIMEOUT, "soon");
+        var response = new MockHttpServletResponse();
+        var chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        var error = ArgumentCaptor.forClass(Exception.class);
+        verify(exceptionResolver).resolveException(eq(request), eq(response), isNull(), error.capture());
+        assertThat(((GenericException) error.getValue()).getDescription()).isEqualTo(Constants.INVALID_REQUEST_TIMEOUT + "soon");
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void requestedTimeoutBoundsTheChainAndIsCleared() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader(Constants.X_REQUEST_TIMEOUT, "500");
+        var chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertThat(RequestDeadline.current().remaining().orElseThrow()).isLessThanOrEqualTo(Duration.ofMillis(500));
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        assertThat(RequestDeadline.current().remaining()).isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.configurations;
+
+import com.example.exceptions.BusinessException;
+import com.example.utils.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerConfigTest {
+
+    private final GlobalExceptionHandlerConfig handler = new GlobalExceptionHandlerConfig();
+
+    @Test
+    void asyncRequestTimeoutAnswersServiceUnavailable() {
+        var response = handler.handleException(new AsyncRequestTimeoutException(), new MockHttpServletRequest("GET", "/products/search"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        var body = (BusinessException.BusinessExceptionBody) response.getBody();
+        assertThat(body.getStatus()).isEqualTo(503);
+        assertThat(body.getDescription()).isEqualTo(Constants.ASYNC_REQUEST_TIMEOUT);
+        assertThat(body.getPath()).isEqualTo("/products/search");
+    }
+
+    @Test
+    void throwableWithoutMessageAnswersInternalServerError() {
+        var response = handler.handleException((Throwable) new IllegalStateException(), new MockHttpServletRequest("GET", "/products"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.repositories;
+
+import com.example.configurations.SearchFanOutPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.ProductAttributeBucket;
+import com.example.domains.dto.Attribute;
+import com.example.domains.enums.ReadOperation;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductRepositoryCustomImplTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime T2 = T1.plusDays(1);
+    private static final LocalDateTime T3 = T1.plusDays(2);
+
+    @Test
+    void branchesAreMergedInSortOrder() {
+        var comparator = ProductRepositoryCustomImpl.comparator(Sort.by("description", "id"));
+        var page = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(product("1", "apple"), product("4", "grape")),
+                List.of(product("2", "banana"), product("5", "melon")),
+                List.of(product("3", "cherry"))
+        ), comparator, 0, 10);
+
+        assertThat(page).extracting(Product::getId).containsExactly("1", "2", "3", "4", "5");
+    }
+
+    @Test
+    void productsMatchedByMoreThanOneBranchAppearOnce() {
+        var comparator = ProductRepositoryCustomImpl.comparator(Sort.by("description", "id"));
+        var page = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(product("1", "apple"), product("2", "banana")),
+                List.of(product("2", "banana"), product("3", "cherry")),
+                List.of(product("1", "apple"), product("3", "cherry"))
+        ), comparator, 0, 10);
+
+        assertThat(page).extracting(Product::getId).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void offsetSkipsDistinctProductsOnly() {
+        var comparator = ProductRepositoryCustomImpl.comparator(Sort.by("description", "id"));
+        var page = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(product("1", "apple"), product("2", "banana"), product("4", "grape")),
+                List.of(product("1", "apple"), product("2", "banana"), product("3", "cherry"))
+        ), comparator, 2, 2);
+
+        assertThat(page).extracting(Product::getId).containsExactly("3", "4");
+    }
+
+    @Test
+    void offsetPastTheWindowReturnsAnEmptyPage() {
+        var comparator = ProductRepositoryCustomImpl.comparator(Sort.by("id"));
+        var page = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(product("1", "apple")),
+                List.of(product("1", "apple"), product("2", "banana"))
+        ), comparator, 5, 10);
+
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    void missingValuesSortFirstAscendingAndLastDescending() {
+        var products = List.of(updated("1", T2), updated("2", null), updated("3", T1), updated("4", T3));
+
+        var ascending = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(products.get(1), products.get(2)),
+                List.of(products.get(0), products.get(3))
+        ), ProductRepositoryCustomImpl.comparator(Sort.by(Sort.Order.asc("updatedAt"), Sort.Order.asc("id"))), 0, 10);
+        var descending = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(products.get(3), products.get(0)),
+                List.of(products.get(2), products.get(1))
+        ), ProductRepositoryCustomImpl.comparator(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("id"))), 0, 10);
+
+        assertThat(ascending).extracting(Product::getId).containsExactly("2", "3", "1", "4");
+        assertThat(descending).extracting(Product::getId).containsExactly("4", "1", "3", "2");
+    }
+
+    @Test
+    void tiesAreBrokenByTheSecondarySortKey() {
+        var comparator = ProductRepositoryCustomImpl.comparator(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("id")));
+        var page = ProductRepositoryCustomImpl.merge(List.of(
+                List.of(created("2", T1), created("4", T1)),
+                List.of(created("1", T1), created("3", T1))
+        ), comparator, 0, 10);
+
+        assertThat(page).extracting(Product::getId).containsExactly("1", "2", "3", "4");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistIsASingleUpsertStampedByTheServer() {
+        var routing = mock(RoutingMongoOperations.class);
+        var operations = mock(MongoOperations.class);
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(operations.getConverter()).thenReturn(converter);
+        when(routing.write(any())).thenAnswer(invocation -> ((Function<MongoOperations, Object>) invocation.getArgument(0)).apply(operations));
+        var repository = new ProductRepositoryCustomImpl(routing, null, null, null);
+        var product = Product.builder().id("65a000000000000000000001").description("apple")
+                .attributes(List.of(new Attribute("color", "red"))).createdAt(T1).updatedAt(T2).build();
+
+        repository.persist(product);
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        var update = ArgumentCaptor.forClass(Update.class);
+        var options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(operations).findAndModify(query.capture(), update.capture(), options.capture(), eq(Product.class));
+        verify(operations, never()).save(any());
+        var updateObject = update.getValue().getUpdateObject();
+        assertThat(query.getValue().getQueryObject()).containsEntry("id", product.getId());
+        assertThat(updateObject.get("$currentDate", Document.class)).containsEntry("updatedAt", true);
+        assertThat(updateObject.get("$set", Document.class)).containsKeys("description", "attributes").doesNotContainKeys("updatedAt", "createdAt", "_id");
+        assertThat(updateObject.get("$unset", Document.class)).containsKey("attributeBuckets");
+        assertThat(updateObject.get("$setOnInsert", Document.class)).containsEntry("createdAt", T1);
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(options.getValue().isReturnNew()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keywordSearchAlsoMatchesAttributesStoredInBuckets() {
+        var routing = mock(RoutingMongoOperations.class);
+        var operations = mock(MongoOperations.class);
+        when(routing.read(eq(ReadOperation.SEARCH), any())).thenAnswer(invocation -> ((Function<MongoOperations, Object>) invocation.getArgument(1)).apply(operations));
+        when(operations.findDistinct(any(Query.class), eq("productId"), eq(ProductAttributeBucket.class), eq(String.class)))
+                .thenReturn(List.of("65a000000000000000000002"));
+        var repository = new ProductRepositoryCustomImpl(routing, mock(QueryShapeRecorder.class), new SearchFanOutPropertiesConfig(), null);
+
+        repository.findByKeyword("blue", PageRequest.of(0, 10));
+
+        var bucketQuery = ArgumentCaptor.forClass(Query.class);
+        verify(operations).findDistinct(bucketQuery.capture(), eq("productId"), eq(ProductAttributeBucket.class), eq(String.class));
+        assertThat(bucketQuery.getValue().getQueryObject().toJson()).contains("attributes").doesNotContain("description");
+        var productQuery = ArgumentCaptor.forClass(Query.class);
+        verify(operations).find(productQuery.capture(), eq(Product.class));
+        assertThat(productQuery.getValue().getQueryObject().toJson()).contains("\"$in\": [\"65a000000000000000000002\"]");
+    }
+
+    private static Product product(String id, String description) {
+        return Product.builder().id(id).description(description).build();
+    }
+
+    private static Product updated(String id, LocalDateTime updatedAt) {
+        return Product.builder().id(id).description("product " + id).updatedAt(updatedAt).build();
+    }
+
+    private static Product created(String id, LocalDateTime createdAt) {
+        return Product.builder().id(id).description("product " + id).createdAt(createdAt).build();
+    }
+}
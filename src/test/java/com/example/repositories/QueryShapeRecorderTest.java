@@ -0,0 +1,58 @@
+package com.example.repositories;
+
+import com.example.configurations.QueryAdvisorPropertiesConfig;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryShapeRecorderTest {
+
+    private static com.mongodb.client.MongoClient client;
+
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create("mongodb://localhost:1");
+        mongoTemplate = new MongoTemplate(client, "test");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void everyQueryIsRecordedWithoutSampling() {
+        var properties = new QueryAdvisorPropertiesConfig();
+        properties.setSampleEvery(1);
+        var recorder = new QueryShapeRecorder(properties, mongoTemplate);
+
+        for (int i = 0; i < 10; i++) {
+            recorder.record("findOne", new Query(Criteria.where("id").is("id-" + i)));
+        }
+
+        assertThat(recorder.getSamples()).singleElement()
+                .satisfies(sample -> assertThat(sample.getCount()).hasValue(10));
+    }
+
+    @Test
+    void sampledCountsAreScaledBackToAnEstimate() {
+        var properties = new QueryAdvisorPropertiesConfig();
+        properties.setSampleEvery(10);
+        var recorder = new QueryShapeRecorder(properties, mongoTemplate);
+
+        for (int i = 0; i < 10_000; i++) {
+            recorder.record("findOne", new Query(Criteria.where("id").is("id-" + i)));
+        }
+
+        var sample = recorder.getSamples().iterator().next();
+        assertThat(sample.getCount().get()).isBetween(8_000L, 12_000L).matches(count -> count % 10 == 0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Slf4j
+@Tag("benchmark")
+class SearchFanOutBenchmarkTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 100;
+
+    private static SearchFanOutFixture fixture;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for the fan-out benchmark");
+        fixture = new SearchFanOutFixture(PRODUCTS);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void singleQueryAgainstFanOutLatency() {
+        var single = fixture.repository(false);
+        var fanOut = fixture.repository(true);
+        var pages = Map.of(
+                "first page", PageRequest.of(0, 20, Sort.by("description")),
+                "offset 1000", PageRequest.of(50, 20, Sort.by("description")),
+                "newest first", PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("id"))));
+
+        for (var keyword : List.of("phone", "blue", "watch")) {
+            for (var page : pages.entrySet()) {
+                var singleMillis = measure(single, keyword, page.getValue());
+                var fanOutMillis = measure(fanOut, keyword, page.getValue());
+                log.info("keyword={} page=\"{}\" or.p50={} or.p95={} fanOut.p50={} fanOut.p95={}", keyword, page.getKey(),
+                        percentile(singleMillis, 50), percentile(singleMillis, 95),
+                        percentile(fanOutMillis, 50), percentile(fanOutMillis, 95));
+            }
+        }
+    }
+
+    private static double[] measure(ProductRepositoryCustomImpl repository, String keyword, Pageable pageable) {
+        for (int i = 0; i < WARMUP; i++) {
+            repository.findByKeyword(keyword, pageable);
+        }
+        var millis = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            var startedAt = System.nanoTime();
+            repository.findByKeyword(keyword, pageable);
+            millis[i] = (System.nanoTime() - startedAt) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static double percentile(double[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
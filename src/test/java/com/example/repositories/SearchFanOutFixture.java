@@ -0,0 +1,95 @@
+package com.example.repositories;
+
+import com.example.configurations.MongoRoutingPropertiesConfig;
+import com.example.configurations.QueryAdvisorPropertiesConfig;
+import com.example.configurations.SearchFanOutPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class SearchFanOutFixture implements AutoCloseable {
+
+    private static final List<String> WORDS = List.of("phone", "tablet", "notebook", "monitor", "keyboard", "mouse",
+            "camera", "speaker", "router", "watch", "printer", "charger");
+    private static final List<String> COLORS = List.of("red", "green", "blue", "black", "white", "silver");
+
+    private final MongoDBContainer mongo;
+
+    private final SimpleMongoClientDatabaseFactory databaseFactory;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    SearchFanOutFixture(int products) {
+        mongo = new MongoDBContainer(DockerImageName.parse("mongo:6.0"));
+        mongo.start();
+        databaseFactory = new SimpleMongoClientDatabaseFactory(mongo.getReplicaSetUrl("fan-out"));
+        mongoTemplate = new MongoTemplate(databaseFactory);
+        var indexOperations = mongoTemplate.indexOps(Product.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Product.class)
+                .forEach(indexOperations::ensureIndex);
+        seed(products);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.initialize();
+    }
+
+    ProductRepositoryCustomImpl repository(boolean fanOut) {
+        var fanOutProperties = new SearchFanOutPropertiesConfig();
+        fanOutProperties.setEnabled(fanOut);
+        var routing = new RoutingMongoOperations(mongoTemplate, databaseFactory, new MongoRoutingPropertiesConfig());
+        var recorder = new QueryShapeRecorder(new QueryAdvisorPropertiesConfig(), mongoTemplate);
+        return new ProductRepositoryCustomImpl(routing, recorder, fanOutProperties, executor);
+    }
+
+    static List<String> ids(ProductRepositoryCustomImpl repository, String keyword, Pageable pageable) {
+        return repository.findByKeyword(keyword, pageable).stream().map(Product::getId).toList();
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdown();
+        databaseFactory.destroy();
+        mongo.stop();
+    }
+
+    private void seed(int products) {
+        var random = new Random(42);
+        var createdAt = LocalDateTime.of(2023, 1, 1, 0, 0);
+        var batch = new ArrayList<Product>(1_000);
+        for (int i = 0; i < products; i++) {
+            var word = WORDS.get(random.nextInt(WORDS.size()));
+            var attributes = new ArrayList<Attribute>();
+            attributes.add(new Attribute("color", COLORS.get(random.nextInt(COLORS.size()))));
+            attributes.add(new Attribute("year", 2015 + random.nextInt(10)));
+            attributes.add(new Attribute("tags", List.of(Map.of("name", WORDS.get(random.nextInt(WORDS.size()))))));
+            batch.add(Product.builder()
+                    .description(word + " model " + i)
+                    .attributes(attributes)
+                    .createdAt(createdAt.plusMinutes(random.nextInt(500_000)))
+                    .build());
+            if (batch.size() == 1_000) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+        mongoTemplate.insertAll(batch);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.repositories;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SearchFanOutIntegrationTest {
+
+    private static SearchFanOutFixture fixture;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for the fan-out integration test");
+        fixture = new SearchFanOutFixture(2_000);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void fanOutReturnsTheSamePageAsTheSingleQuery() {
+        var single = fixture.repository(false);
+        var fanOut = fixture.repository(true);
+        var pages = List.of(
+                PageRequest.of(0, 20, Sort.by("description")),
+                PageRequest.of(10, 20, Sort.by("description")),
+                PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("id"))));
+
+        for (var keyword : List.of("phone", "blue", "watch")) {
+            for (var page : pages) {
+                assertThat(SearchFanOutFixture.ids(fanOut, keyword, page))
+                        .isNotEmpty()
+                        .isEqualTo(SearchFanOutFixture.ids(single, keyword, page));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.services;
+
+import com.example.configurations.AttributeIndexPropertiesConfig;
+import com.example.domains.Product;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttributeIndexServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final IndexOperations indexOps = mock(IndexOperations.class);
+
+    private final AggregateIterable<Document> sample = mockAggregate();
+
+    private final AttributeIndexPropertiesConfig properties = new AttributeIndexPropertiesConfig();
+
+    private AttributeUsageService attributeUsage;
+
+    private AttributeIndexService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties.setMinFilters(1.0);
+        attributeUsage = new AttributeUsageService(properties);
+        service = new AttributeIndexService(mongoTemplate, attributeUsage, properties, new SimpleMeterRegistry());
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.indexOps(Product.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.getCollectionName(Product.class)).thenReturn("products");
+        when(mongoTemplate.getCollection("products")).thenReturn(collection);
+        when(collection.estimatedDocumentCount()).thenReturn(100L);
+        when(collection.aggregate(anyList())).thenReturn(sample);
+        for (int i = 0; i < 5; i++) {
+            attributeUsage.record("color", 1_000_000);
+        }
+    }
+
+    @Test
+    void keyMissingFromTheSampleIsNotIndexed() {
+        when(sample.first()).thenReturn(null);
+
+        assertThat(service.reconcile()).isEmpty();
+
+        verify(indexOps, never()).ensureIndex(any());
+        assertThat(attributeUsage.get("color").orElseThrow().getSelectivity()).isNull();
+    }
+
+    @Test
+    void selectiveKeyIsIndexedUnderASanitizedName() {
+        when(sample.first()).thenReturn(new Document("docs", 50).append("values", 25));
+        when(indexOps.ensureIndex(any())).thenAnswer(invocation -> ((Index) invocation.getArgument(0)).getIndexOptions().getString("name"));
+
+        service.reconcile();
+
+        var index = ArgumentCaptor.forClass(Index.class);
+        verify(indexOps).ensureIndex(index.capture());
+        var options = index.getValue().getIndexOptions();
+        assertThat(options.getString("name")).isEqualTo(AttributeIndexService.indexName("color"));
+        assertThat(options).doesNotContainKey("background");
+        assertThat(attributeUsage.get("color").orElseThrow().getSelectivity()).isEqualTo(0.02);
+    }
+
+    @Test
+    void indexNameKeepsABoundedSafePrefixAndTellsKeysApart() {
+        var name = AttributeIndexService.indexName("color");
+        var unsafe = AttributeIndexService.indexName("size.$ in cm");
+        var longKey = AttributeIndexService.indexName("k".repeat(500));
+
+        assertThat(name).matches("attr_color_[0-9a-f]{8}");
+        assertThat(unsafe).matches("attr_size___in_cm_[0-9a-f]{8}");
+        assertThat(longKey).hasSize("attr_".length() + 40 + 9);
+        assertThat(AttributeIndexService.indexName("a.b")).isNotEqualTo(AttributeIndexService.indexName("a$b"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AggregateIterable<Document> mockAggregate() {
+        return mock(AggregateIterable.class);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.services;
+
+import com.example.configurations.AttributeInterningPropertiesConfig;
+import com.example.domains.dto.Attribute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttributeInterningServiceTest {
+
+    @Test
+    void repeatedKeysAndValuesShareOneInstance() {
+        var interning = new AttributeInterningService(new AttributeInterningPropertiesConfig(), new SimpleMeterRegistry());
+        var first = new ArrayList<>(List.of(new Attribute(new String("color"), new String("red"))));
+        var second = new ArrayList<>(List.of(new Attribute(new String("color"), new String("red"))));
+
+        interning.intern(first);
+        interning.intern(second);
+
+        assertThat(second.get(0).getKey()).isSameAs(first.get(0).getKey());
+        assertThat(second.get(0).getValue()).isSameAs(first.get(0).getValue());
+        assertThat(interning.isShared(first.get(0).getKey())).isTrue();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.services;
+
+import com.example.configurations.AttributeOffloadPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+import com.example.exceptions.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AttributeOffloadServiceTest {
+
+    private final GridFsTemplate gridFsTemplate = mock(GridFsTemplate.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final AttributeOffloadService offload = new AttributeOffloadService(gridFsTemplate, mongoTemplate, objectMapper,
+            new AttributeOffloadPropertiesConfig());
+
+    @Test
+    void referencesAreIgnoredInRequestBodies() throws Exception {
+        var attribute = objectMapper.readValue("{\"key\":\"manual\",\"value\":null,\"valueRef\":\"%s\",\"valueSize\":10}"
+                .formatted(new ObjectId().toHexString()), Attribute.class);
+
+        assertThat(attribute.getValueRef()).isNull();
+        assertThat(attribute.getValueSize()).isNull();
+    }
+
+    @Test
+    void referencesAreStillWrittenInResponses() throws Exception {
+        var json = objectMapper.writeValueAsString(new Attribute("manual", null, "abc", 10L));
+
+        assertThat(json).contains("\"valueRef\":\"abc\"").contains("\"valueSize\":10");
+    }
+
+    @Test
+    void foreignReferenceIsDropped() {
+        var foreign = new ObjectId().toHexString();
+        var attributes = new ArrayList<>(List.of(new Attribute("manual", null, foreign, 10L)));
+
+        offload.offload(attributes, Map.of());
+
+        assertThat(attributes.get(0).getValueRef()).isNull();
+        assertThat(attributes.get(0).getValueSize()).isNull();
+        verify(gridFsTemplate, never()).delete(any(Query.class));
+    }
+
+    @Test
+    void storedReferenceForTheSameKeyIsKept() {
+        var stored = new ObjectId().toHexString();
+        var attributes = new ArrayList<>(List.of(new Attribute("manual", null, stored, 10L)));
+
+        offload.offload(attributes, Map.of("manual", stored));
+
+        assertThat(attributes.get(0).getValueRef()).isEqualTo(stored);
+    }
+
+    @Test
+    void storedReferenceUnderAnotherKeyIsNotKept() {
+        var stored = new ObjectId().toHexString();
+        var attributes = new ArrayList<>(List.of(new Attribute("other", null, stored, 10L)));
+
+        offload.offload(attributes, Map.of("manual", stored));
+
+        assertThat(attributes.get(0).getValueRef()).isNull();
+    }
+
+    @Test
+    void invalidReferencesAreNotFoundInsteadOfFailing() {
+        assertThatThrownBy(() -> offload.open("not-an-object-id")).isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(gridFsTemplate);
+    }
+
+    @Test
+    void multiByteValuesAreMeasuredInSerializedBytes() {
+        var properties = new AttributeOffloadPropertiesConfig();
+        properties.setThreshold(DataSize.ofKilobytes(1));
+        var offload = new AttributeOffloadService(gridFsTemplate, mongoTemplate, objectMapper, properties);
+        when(gridFsTemplate.store(any(InputStream.class), eq("price"), any(String.class), any(Document.class))).thenReturn(new ObjectId());
+        var attributes = new ArrayList<>(List.of(new Attribute("price", "€".repeat(400))));
+
+        offload.offload(attributes, Map.of());
+
+        assertThat(attributes.get(0).getValue()).isNull();
+        assertThat(attributes.get(0).getValueSize()).isEqualTo(1202L);
+    }
+
+    @Test
+    void onlyFilesUnreferencedForTheWholeGracePeriodAreCollected() {
+        var longAgo = new Date(System.currentTimeMillis() - Duration.ofDays(1).toMillis());
+        var adopted = file(longAgo);
+        var fresh = file(null);
+        var recent = file(new Date());
+        var expired = file(longAgo);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("fs.files")))
+                .thenReturn(List.of(adopted, fresh, recent, expired))
+                .thenReturn(List.of());
+        when(mongoTemplate.findDistinct(any(Query.class), eq("attributes.valueRef"), eq(Product.class), eq(String.class)))
+                .thenReturn(List.of(adopted.getObjectId("_id").toHexString()));
+
+        assertThat(offload.collect()).isEqualTo(1);
+
+        var deleted = ArgumentCaptor.forClass(Query.class);
+        verify(gridFsTemplate).delete(deleted.capture());
+        assertThat(deleted.getValue().getQueryObject().toJson()).contains(expired.getObjectId("_id").toHexString())
+                .doesNotContain(recent.getObjectId("_id").toHexString());
+        var marked = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(marked.capture(), updates.capture(), eq("fs.files"));
+        assertThat(marked.getAllValues().get(0).getQueryObject().toJson()).contains(adopted.getObjectId("_id").toHexString());
+        assertThat(updates.getAllValues().get(0).getUpdateObject()).containsKey("$unset");
+        assertThat(marked.getAllValues().get(1).getQueryObject().toJson()).contains(fresh.getObjectId("_id").toHexString());
+        assertThat(updates.getAllValues().get(1).getUpdateObject()).containsKey("$set");
+    }
+
+    private static Document file(Date orphanedAt) {
+        var file = new Document("_id", new ObjectId());
+        if (orphanedAt != null) {
+            file.put("metadata", new Document("orphanedAt", orphanedAt));
+        }
+        return file;
+    }
+}
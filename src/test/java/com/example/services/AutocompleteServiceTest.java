@@ -0,0 +1,54 @@
+package com.example.services;
+
+import com.example.configurations.AutocompletePropertiesConfig;
+import com.example.domains.Product;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.repositories.ProductTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AutocompleteServiceTest {
+
+    private final ProductRepositoryCustom repositoryCustom = mock(ProductRepositoryCustom.class);
+
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+
+    private final AutocompleteService autocomplete = new AutocompleteService(repositoryCustom,
+            mock(ProductTombstoneRepository.class), new AutocompletePropertiesConfig(), taskScheduler);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void initialLoadRunsOnTheSchedulerOnce() {
+        doAnswer(invocation -> {
+            var product = new Product();
+            product.setId("1");
+            product.setDescription("Notebook Gamer");
+            ((Consumer<Product>) invocation.getArgument(1)).accept(product);
+            return null;
+        }).when(repositoryCustom).streamDescriptions(isNull(), any());
+
+        autocomplete.load();
+        autocomplete.load();
+
+        var task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(task.capture(), any(Instant.class));
+        verifyNoInteractions(repositoryCustom);
+
+        task.getValue().run();
+
+        assertThat(autocomplete.suggest("note", 10)).extracting("id").containsExactly("1");
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.services;
+
+import com.example.configurations.BulkDeletePropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.ProductDeleteJob;
+import com.example.domains.enums.JobStatus;
+import com.example.repositories.ProductDeleteJobRepository;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.utils.Constants;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkDeleteServiceTest {
+
+    private final ProductRepositoryCustom repositoryCustom = mock(ProductRepositoryCustom.class);
+
+    private final ProductService productService = mock(ProductService.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final BulkDeletePropertiesConfig properties = new BulkDeletePropertiesConfig();
+
+    private BulkDeleteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BulkDeleteService(mock(ProductDeleteJobRepository.class), repositoryCustom, productService,
+                mongoTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void transientFailureKeepsTheJobRunningAndReleasesTheLease() {
+        claims(job(0, LocalDateTime.now().plus(properties.getLease())));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenThrow(new IllegalStateException("timeout"));
+
+        service.process();
+
+        var saved = savedProgress();
+        assertThat(saved.get(Constants.KEY_STATUS)).isEqualTo(JobStatus.RUNNING);
+        assertThat(saved.get(Constants.KEY_ATTEMPTS)).isEqualTo(1);
+        assertThat(saved.get(Constants.KEY_ERROR)).isEqualTo("timeout");
+        assertThat(saved.get(Constants.KEY_LOCKED_UNTIL)).isNull();
+        assertThat(saved.get(Constants.KEY_FINISHED_AT)).isNull();
+    }
+
+    @Test
+    void jobFailsAfterTheLastAttempt() {
+        claims(job(properties.getMaxAttempts() - 1, LocalDateTime.now().plus(properties.getLease())));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenThrow(new IllegalStateException("timeout"));
+
+        service.process();
+
+        var saved = savedProgress();
+        assertThat(saved.get(Constants.KEY_STATUS)).isEqualTo(JobStatus.FAILED);
+        assertThat(saved.get(Constants.KEY_ATTEMPTS)).isEqualTo(properties.getMaxAttempts());
+        assertThat(saved.get(Constants.KEY_FINISHED_AT)).isNotNull();
+    }
+
+    @Test
+    void successfulBatchResetsTheAttempts() {
+        claims(job(2, LocalDateTime.now().plus(properties.getLease())));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenReturn(List.of(product("1")));
+
+        service.process();
+
+        var saved = savedProgress();
+        assertThat(saved.get(Constants.KEY_ATTEMPTS)).isEqualTo(0);
+        assertThat(saved.get(Constants.KEY_ERROR)).isNull();
+        assertThat(saved.get(Constants.KEY_LAST_ID)).isEqualTo("1");
+    }
+
+    @Test
+    void failedProductIsRetriedInsteadOfSkipped() {
+        claims(job(0, LocalDateTime.now().plus(properties.getLease())));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenReturn(List.of(product("1"), product("2"), product("3")));
+        doThrow(new IllegalStateException("timeout")).when(productService).remove(argThat(product -> product.getId().equals("2")));
+
+        service.process();
+
+        verify(productService, never()).remove(argThat(product -> product.getId().equals("3")));
+        var saved = savedProgress();
+        assertThat(saved.get(Constants.KEY_STATUS)).isEqualTo(JobStatus.RUNNING);
+        assertThat(saved.get(Constants.KEY_LAST_ID)).isEqualTo("1");
+        assertThat(saved.get(Constants.KEY_DELETED)).isEqualTo(1L);
+        assertThat(saved.get(Constants.KEY_FAILED)).isEqualTo(1L);
+        assertThat(saved.get(Constants.KEY_ATTEMPTS)).isEqualTo(1);
+    }
+
+    @Test
+    void leaseIsRenewedOnceHalfOfItHasElapsed() {
+        claims(job(0, LocalDateTime.now().plus(properties.getLease().dividedBy(4))));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenReturn(List.of(product("1"), product("2")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProductDeleteJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        service.process();
+
+        verify(productService, times(2)).remove(any());
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(ProductDeleteJob.class));
+    }
+
+    @Test
+    void lostLeaseStopsTheBatch() {
+        claims(job(0, LocalDateTime.now().minusSeconds(1)));
+        when(repositoryCustom.findByKeywordAfter(any(), any(), anyInt())).thenReturn(List.of(product("1"), product("2")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProductDeleteJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        service.process();
+
+        verify(productService, never()).remove(any());
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(ProductDeleteJob.class));
+    }
+
+    private void claims(ProductDeleteJob job) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ProductDeleteJob.class)))
+                .thenReturn(job);
+    }
+
+    private Document savedProgress() {
+        var update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(ProductDeleteJob.class));
+        return (Document) update.getValue().getUpdateObject().get("$set");
+    }
+
+    private static ProductDeleteJob job(int attempts, LocalDateTime lockedUntil) {
+        return ProductDeleteJob.builder()
+                .id("job")
+                .keyword("phone")
+                .status(JobStatus.RUNNING)
+                .total(2L)
+                .deleted(0L)
+                .failed(0L)
+                .attempts(attempts)
+                .lockedUntil(lockedUntil)
+                .build();
+    }
+
+    private static Product product(String id) {
+        return Product.builder().id(id).description("product " + id).build();
+    }
+}
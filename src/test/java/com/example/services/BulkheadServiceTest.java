@@ -0,0 +1,74 @@
+package com.example.services;
+
+import com.example.configurations.BulkheadPropertiesConfig;
+import com.example.domains.enums.Bulkhead;
+import com.example.exceptions.DeadlineExceededException;
+import com.example.utils.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadServiceTest {
+
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+
+    private final BulkheadService bulkheadService = new BulkheadService(new BulkheadPropertiesConfig(), new SimpleMeterRegistry(),
+            executor(), executor(), executor(), executor());
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Test
+    void readsAreAbandonedAtTheCallerDeadline() {
+        var release = new CountDownLatch(1);
+        RequestDeadline.start(Duration.ofMillis(50));
+
+        var future = bulkheadService.submit(Bulkhead.READ, () -> await(release));
+
+        assertThatThrownBy(future::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        release.countDown();
+    }
+
+    @Test
+    void startedWritesAreNotReportedAsFailedBeforeTheyFinish() {
+        var release = new CountDownLatch(1);
+        RequestDeadline.start(Duration.ofMillis(50));
+
+        var future = bulkheadService.submit(Bulkhead.WRITE, () -> await(release));
+
+        assertThat(future.completeOnTimeout("pending", 200, TimeUnit.MILLISECONDS).join()).isEqualTo("pending");
+        release.countDown();
+    }
+
+    private String await(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private ThreadPoolTaskExecutor executor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        executors.add(executor);
+        return executor;
+    }
+}
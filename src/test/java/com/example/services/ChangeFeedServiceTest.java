@@ -0,0 +1,90 @@
+package com.example.services;
+
+import com.example.configurations.ChangeFeedPropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.ProductTombstone;
+import com.example.domains.enums.ChangeType;
+import com.example.exceptions.GenericException;
+import com.example.repositories.ProductRepositoryCustom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    private static final LocalDateTime SERVER_NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static final LocalDateTime T1 = SERVER_NOW.minusMinutes(3);
+
+    private static final LocalDateTime T2 = SERVER_NOW.minusMinutes(2);
+
+    @Mock
+    private ProductRepositoryCustom repositoryCustom;
+
+    @Mock
+    private AttributeBucketService attributeBuckets;
+
+    private final ChangeFeedPropertiesConfig properties = new ChangeFeedPropertiesConfig();
+
+    @Test
+    void upperBoundComesFromTheServerClock() {
+        when(repositoryCustom.currentTime()).thenReturn(SERVER_NOW);
+
+        service().changesSince(null, 10);
+
+        var until = SERVER_NOW.minus(properties.getSafetyLag());
+        verify(repositoryCustom).findChangedSince(isNull(), isNull(), eq(until), eq(11));
+        verify(repositoryCustom).findDeletedSince(isNull(), isNull(), eq(until), eq(11));
+    }
+
+    @Test
+    void tokenResumesAfterTheLastChangeOfThePage() {
+        when(repositoryCustom.currentTime()).thenReturn(SERVER_NOW);
+        when(repositoryCustom.findChangedSince(isNull(), isNull(), any(), anyInt()))
+                .thenReturn(List.of(product("a", T1), product("c", T2)));
+        when(repositoryCustom.findDeletedSince(isNull(), isNull(), any(), anyInt()))
+                .thenReturn(List.of(new ProductTombstone("b", T1)));
+
+        var first = service().changesSince(null, 2);
+
+        assertThat(first.getHasMore()).isTrue();
+        assertThat(first.getChanges()).extracting("type", "id")
+                .containsExactly(tuple(ChangeType.UPSERT, "a"), tuple(ChangeType.DELETE, "b"));
+
+        when(repositoryCustom.findChangedSince(eq(T1), eq("b"), any(), anyInt())).thenReturn(List.of(product("c", T2)));
+        when(repositoryCustom.findDeletedSince(eq(T1), eq("b"), any(), anyInt())).thenReturn(List.of());
+
+        var second = service().changesSince(first.getNextToken(), 2);
+
+        assertThat(second.getHasMore()).isFalse();
+        assertThat(second.getChanges()).extracting("id").containsExactly("c");
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> service().changesSince("not-a-token", 10)).isInstanceOf(GenericException.class);
+    }
+
+    private ChangeFeedService service() {
+        return new ChangeFeedService(repositoryCustom, attributeBuckets, properties);
+    }
+
+    private static Product product(String id, LocalDateTime updatedAt) {
+        return Product.builder().id(id).description("product " + id).updatedAt(updatedAt).build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.services;
+
+import com.example.configurations.BulkheadPropertiesConfig;
+import com.example.configurations.PatchCoalescingPropertiesConfig;
+import com.example.domains.dto.ProductDTO;
+import com.example.domains.enums.Bulkhead;
+import com.example.exceptions.DeadlineExceededException;
+import com.example.exceptions.GenericException;
+import com.example.exceptions.TooManyRequestsException;
+import com.example.utils.ConsistencyContext;
+import com.example.utils.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatchCoalescingServiceTest {
+
+    private final ProductService productService = mock(ProductService.class);
+
+    private final BulkheadService bulkheadService = mock(BulkheadService.class);
+
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+
+    private final PatchCoalescingPropertiesConfig properties = new PatchCoalescingPropertiesConfig();
+
+    private final List<Duration> writeDeadlines = new ArrayList<>();
+
+    private final List<BsonTimestamp> writeClusterTimes = new ArrayList<>();
+
+    private PatchCoalescingService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new PatchCoalescingService(productService, bulkheadService, taskScheduler, properties,
+                new BulkheadPropertiesConfig(), new SimpleMeterRegistry());
+        when(bulkheadService.submit(eq(Bulkhead.WRITE), any())).thenAnswer(invocation -> {
+            writeDeadlines.add(RequestDeadline.current().remaining().orElse(null));
+            writeClusterTimes.add(ConsistencyContext.current().getAfterClusterTime());
+            try {
+                return CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        ConsistencyContext.clear();
+    }
+
+    @Test
+    void patchesOfOneWindowAreAppliedInOneWrite() {
+        var product = ProductDTO.builder().id("1").build();
+        when(productService.patch(eq("1"), anyList())).thenReturn(product);
+
+        var first = service.submit("1", "", patch("a"));
+        var second = service.submit("1", "", patch("b"));
+        flush();
+
+        verify(productService).patch(eq("1"), argThat(patches -> patches.size() == 2));
+        assertThat(first).isCompletedWithValueMatching(acknowledgement -> acknowledgement.product() == product);
+        assertThat(second).isCompletedWithValueMatching(acknowledgement -> acknowledgement.product() == product);
+    }
+
+    @Test
+    void offendingPatchFailsAloneAndTheOthersAreApplied() {
+        var product = ProductDTO.builder().id("1").build();
+        var bad = patch("bad");
+        when(productService.patch(eq("1"), anyList())).thenAnswer(invocation -> {
+            List<ProductService.Patch> patches = invocation.getArgument(1);
+            if (patches.stream().anyMatch(patch -> patch.product() == bad)) {
+                throw new GenericException("invalid");
+            }
+            return product;
+        });
+
+        var first = service.submit("1", "", patch("a"));
+        var offending = service.submit("1", "", bad);
+        var third = service.submit("1", "", patch("c"));
+        flush();
+
+        assertThat(first).isCompletedWithValueMatching(acknowledgement -> acknowledgement.product() == product);
+        assertThat(third).isCompletedWithValueMatching(acknowledgement -> acknowledgement.product() == product);
+        assertThatThrownBy(offending::join).hasCauseInstanceOf(GenericException.class);
+        verify(productService, times(4)).patch(eq("1"), anyList());
+    }
+
+    @Test
+    void infrastructureFailureFailsTheBatchWithoutRetryingEachPatch() {
+        when(productService.patch(eq("1"), anyList())).thenThrow(new IllegalStateException("down"));
+
+        var first = service.submit("1", "", patch("a"));
+        var second = service.submit("1", "", patch("b"));
+        flush();
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+        verify(productService, times(1)).patch(eq("1"), anyList());
+    }
+
+    @Test
+    void fullLaneRejectsNewPatches() {
+        properties.setMaxPending(2);
+        service.submit("1", "", patch("a"));
+        service.submit("1", "", patch("b"));
+
+        assertThatThrownBy(() -> service.submit("1", "", patch("c"))).isInstanceOf(TooManyRequestsException.class);
+        assertThat(service.submit("2", "", patch("d"))).isNotDone();
+    }
+
+    @Test
+    void writeRunsUnderTheTightestDeadlineAndLatestTokenOfItsCallers() {
+        when(productService.patch(eq("1"), anyList())).thenReturn(ProductDTO.builder().id("1").build());
+        RequestDeadline.start(Duration.ofSeconds(20));
+        ConsistencyContext.current().setAfterClusterTime(new BsonTimestamp(10, 1));
+        service.submit("1", "", patch("a"));
+        RequestDeadline.start(Duration.ofSeconds(2));
+        ConsistencyContext.current().setAfterClusterTime(new BsonTimestamp(12, 1));
+        service.submit("1", "", patch("b"));
+        RequestDeadline.clear();
+        ConsistencyContext.clear();
+
+        flush();
+
+        assertThat(writeDeadlines).singleElement().satisfies(remaining -> assertThat(remaining).isLessThanOrEqualTo(Duration.ofSeconds(2)));
+        assertThat(writeClusterTimes).containsExactly(new BsonTimestamp(12, 1));
+        assertThat(RequestDeadline.current().remaining()).isEmpty();
+    }
+
+    @Test
+    void expiredCallerIsAnsweredWithoutApplyingItsPatch() throws InterruptedException {
+        RequestDeadline.start(Duration.ofMillis(1));
+        var expired = service.submit("1", "", patch("a"));
+        RequestDeadline.clear();
+        Thread.sleep(5);
+
+        flush();
+
+        assertThatThrownBy(expired::join).hasCauseInstanceOf(DeadlineExceededException.class);
+        verify(productService, never()).patch(any(), anyList());
+    }
+
+    private void flush() {
+        var task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+        task.getValue().run();
+    }
+
+    private static ProductDTO patch(String description) {
+        return ProductDTO.builder().description(description).build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.services;
+
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+import com.example.domains.dto.ProductDTO;
+import com.example.repositories.ProductRepositoryCustom;
+import com.example.repositories.ProductTombstoneRepository;
+import com.example.utils.ConsistencyContext;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepositoryCustom repositoryCustom;
+
+    @Mock
+    private SearchCacheService searchCache;
+
+    @Mock
+    private WriteEpochService writeEpoch;
+
+    @Mock
+    private AttributeBucketService attributeBuckets;
+
+    @Mock
+    private AttributeOffloadService attributeOffload;
+
+    @Mock
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private AutocompleteService autocomplete;
+
+    @Mock
+    private AttributeUsageService attributeUsage;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @AfterEach
+    void tearDown() {
+        ConsistencyContext.clear();
+    }
+
+    @Test
+    void tokenedSearchSkipsTheCache() {
+        ConsistencyContext.current().setAfterClusterTime(new BsonTimestamp(10, 1));
+        var pageable = PageRequest.of(0, 10);
+        when(repositoryCustom.findByKeyword("phone", pageable))
+                .thenReturn(new PageImpl<>(List.of(Product.builder().id("1").description("phone").build())));
+
+        var page = productService.findByKeyword("phone", pageable, Duration.ofSeconds(30));
+
+        assertThat(page.getContent()).extracting("id").containsExactly("1");
+        verify(searchCache, never()).get(any(), anyLong(), any());
+        verify(searchCache, never()).put(any(), anyLong(), any());
+    }
+
+    @Test
+    void untokenedSearchIsAnsweredFromTheCache() {
+        var pageable = PageRequest.of(0, 10);
+        when(writeEpoch.current()).thenReturn(3L);
+        when(searchCache.get(new SearchCacheService.Key("phone", pageable), 3L, Duration.ZERO))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(Product.builder().id("1").description("phone").build()))));
+
+        var page = productService.findByKeyword("phone", pageable, Duration.ZERO);
+
+        assertThat(page.getContent()).extracting("id").containsExactly("1");
+        verify(repositoryCustom, never()).findByKeyword(any(), any());
+    }
+
+    @Test
+    void bucketsAreWrittenBeforeTheParentIsFlipped() {
+        when(attributeBuckets.shouldBucket(any())).thenReturn(true);
+        when(attributeBuckets.bucketCount(anyInt())).thenReturn(2);
+        when(repositoryCustom.persist(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        var productDTO = ProductDTO.builder()
+                .description("large product")
+                .attributes(new ArrayList<>(List.of(new Attribute("a", 1), new Attribute("b", 2))))
+                .build();
+
+        var created = productService.create(productDTO);
+
+        InOrder order = inOrder(attributeBuckets, repositoryCustom);
+        order.verify(attributeBuckets).store(eq(created.getId()), eq(2), anyList());
+        order.verify(repositoryCustom).persist(any());
+        order.verify(attributeBuckets).trim(created.getId(), 2);
+        assertThat(created.getId()).isNotNull();
+    }
+
+    @Test
+    void bucketedPatchAnswersWithTheWholeProduct() {
+        var product = Product.builder().id("1").description("large product").attributes(new ArrayList<>()).attributeBuckets(4).build();
+        when(repositoryCustom.findForUpdate("1")).thenReturn(Optional.of(product));
+        when(attributeBuckets.isBucketed(any())).thenReturn(true);
+        when(attributeBuckets.bucketsFor(Set.of("a"), 4)).thenReturn(Set.of(0));
+        when(attributeBuckets.load("1", Set.of(0))).thenReturn(new ArrayList<>(List.of(new Attribute("a", 1), new Attribute("b", 2))));
+        when(attributeOffload.resolve(anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repositoryCustom.persist(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(attributeBuckets.load(any(Product.class)))
+                .thenReturn(new ArrayList<>(List.of(new Attribute("a", 5), new Attribute("b", 2), new Attribute("c", 3))));
+
+        var patched = productService.patch("1", null, ProductDTO.builder().attributes(List.of(new Attribute("a", 5))).build());
+
+        assertThat(patched.getAttributes()).extracting(Attribute::getKey, Attribute::getValue)
+                .containsExactly(tuple("a", 5), tuple("b", 2), tuple("c", 3));
+        InOrder order = inOrder(attributeBuckets, repositoryCustom);
+        order.verify(attributeBuckets).store(eq("1"), eq(4), eq(Set.of(0)), anyList());
+        order.verify(repositoryCustom).persist(any());
+        order.verify(attributeBuckets).load(any(Product.class));
+    }
+
+    @Test
+    void tombstoneIsWrittenBeforeTheProductIsRemoved() {
+        var product = Product.builder().id("1").description("phone").attributes(new ArrayList<>()).build();
+
+        productService.remove(product);
+
+        InOrder order = inOrder(repositoryCustom);
+        order.verify(repositoryCustom).tombstone("1");
+        order.verify(repositoryCustom).remove("1");
+        verify(tombstoneRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void tombstoneIsWithdrawnWhenTheRemoveFails() {
+        var product = Product.builder().id("1").description("phone").attributes(new ArrayList<>()).build();
+        doThrow(new IllegalStateException("down")).when(repositoryCustom).remove("1");
+
+        assertThatThrownBy(() -> productService.remove(product)).isInstanceOf(IllegalStateException.class);
+
+        verify(tombstoneRepository).deleteById("1");
+        verify(autocomplete, never()).remove(any());
+    }
+}
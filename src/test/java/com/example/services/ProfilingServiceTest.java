@@ -0,0 +1,91 @@
+package com.example.services;
+
+import com.example.configurations.ProfilingPropertiesConfig;
+import com.example.domains.dto.ProfilingSummary;
+import com.example.utils.Constants;
+import com.example.utils.Profiler;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfilingServiceTest {
+
+    private ProfilingService profiling;
+
+    @AfterEach
+    void tearDown() {
+        if (profiling != null) {
+            profiling.close();
+        }
+        Profiler.setEnabled(false);
+    }
+
+    @Test
+    void profilingIsOffByDefault() {
+        profiling = new ProfilingService(new ProfilingPropertiesConfig());
+
+        assertThat(profiling.isEnabled()).isFalse();
+        assertThat(Profiler.record(Constants.PROFILING_LAYER_SERVICE, "noop", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void recordingLeavesOutEnvironmentVariablesAndSystemProperties() throws Exception {
+        var properties = new ProfilingPropertiesConfig();
+        properties.setEnabled(true);
+        profiling = new ProfilingService(properties);
+
+        var started = profiling.start(Duration.ofSeconds(1));
+        Profiler.run(Constants.PROFILING_LAYER_SERVICE, "sample", () -> {
+        });
+        awaitClosed();
+
+        var file = profiling.recording(started.getRecordingId()).orElseThrow().getFile().toPath();
+        var eventTypes = new HashSet<String>();
+        RecordingFile.readAllEvents(file).forEach(event -> eventTypes.add(event.getEventType().getName()));
+
+        assertThat(profiling.status().getLayers()).isNotEmpty();
+        assertThat(eventTypes).isNotEmpty()
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+    }
+
+    @Test
+    void layersReportTheirSelfTimeOnly() throws Exception {
+        var properties = new ProfilingPropertiesConfig();
+        properties.setEnabled(true);
+        profiling = new ProfilingService(properties);
+
+        profiling.start(Duration.ofSeconds(1));
+        Profiler.run(Constants.PROFILING_LAYER_SERVICE, "outer", () -> {
+            sleep(20);
+            Profiler.run(Constants.PROFILING_LAYER_DATABASE, "inner", () -> sleep(200));
+        });
+        awaitClosed();
+
+        var layers = profiling.status().getLayers().stream()
+                .collect(Collectors.toMap(ProfilingSummary.Timing::getLayer, ProfilingSummary.Timing::getTotalMillis));
+        assertThat(layers.get(Constants.PROFILING_LAYER_DATABASE)).isGreaterThanOrEqualTo(200.0);
+        assertThat(layers.get(Constants.PROFILING_LAYER_SERVICE)).isGreaterThanOrEqualTo(20.0).isLessThan(200.0);
+    }
+
+    private void awaitClosed() throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (!RecordingState.CLOSED.name().equals(profiling.status().getState()) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
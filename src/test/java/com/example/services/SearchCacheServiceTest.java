@@ -0,0 +1,125 @@
+package com.example.services;
+
+import com.example.configurations.AttributeInterningPropertiesConfig;
+import com.example.configurations.SearchCachePropertiesConfig;
+import com.example.domains.Product;
+import com.example.domains.dto.Attribute;
+import com.example.utils.ObjectSizeEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCacheServiceTest {
+
+    private final SearchCachePropertiesConfig properties = new SearchCachePropertiesConfig();
+
+    private SearchCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        var interning = new AttributeInterningService(new AttributeInterningPropertiesConfig(), new SimpleMeterRegistry());
+        cache = new SearchCacheService(properties, interning, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void entryIsServedOnlyForItsEpoch() {
+        var key = key("phone");
+        cache.put(key, 1, page("1"));
+
+        assertThat(cache.get(key, 1, Duration.ZERO)).isPresent();
+        assertThat(cache.get(key, 2, Duration.ZERO)).isEmpty();
+    }
+
+    @Test
+    void olderEpochIsServedWithinTheAllowedStaleness() {
+        var key = key("phone");
+        cache.put(key, 1, page("1"));
+
+        assertThat(cache.get(key, 2, Duration.ofSeconds(30))).isPresent();
+    }
+
+    @Test
+    void requestedStalenessIsCappedByConfiguration() throws InterruptedException {
+        properties.setMaxStale(Duration.ofMillis(1));
+        var key = key("phone");
+        cache.put(key, 1, page("1"));
+        Thread.sleep(5);
+
+        assertThat(cache.get(key, 2, Duration.ofMinutes(5))).isEmpty();
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedOverMaxSize() {
+        long entrySize = ObjectSizeEstimator.estimate(page("1").getContent());
+        properties.setMaxSize(DataSize.ofBytes(entrySize * 2 + entrySize / 2));
+
+        cache.put(key("a"), 1, page("1"));
+        cache.put(key("b"), 1, page("2"));
+        cache.get(key("a"), 1, Duration.ZERO);
+        cache.put(key("c"), 1, page("3"));
+
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cache.get(key("a"), 1, Duration.ZERO)).isPresent();
+        assertThat(cache.get(key("b"), 1, Duration.ZERO)).isEmpty();
+        assertThat(cache.get(key("c"), 1, Duration.ZERO)).isPresent();
+        assertThat(cache.getTotalBytes()).isLessThanOrEqualTo(properties.getMaxSize().toBytes());
+    }
+
+    @Test
+    void pageLargerThanTheCacheIsNotStored() {
+        properties.setMaxSize(DataSize.ofBytes(16));
+        cache.put(key("a"), 1, page("1"));
+
+        assertThat(cache.getEntryCount()).isZero();
+    }
+
+    @Test
+    void disabledCacheNeverAnswers() {
+        properties.setEnabled(false);
+        cache.put(key("a"), 1, page("1"));
+
+        assertThat(cache.get(key("a"), 1, Duration.ZERO)).isEmpty();
+    }
+
+    @Test
+    void internedStringsAreRecountedOnceTheDictionaryForgetsThem() {
+        var interningProperties = new AttributeInterningPropertiesConfig();
+        interningProperties.setMaxEntries(50);
+        var interning = new AttributeInterningService(interningProperties, new SimpleMeterRegistry());
+        cache = new SearchCacheService(properties, interning, new SimpleMeterRegistry());
+        var page = page("1");
+        interning.intern(page.getContent().get(0).getAttributes());
+
+        cache.put(key("a"), 1, page);
+        long pinnedBytes = cache.getTotalBytes();
+        assertThat(pinnedBytes).isLessThan(ObjectSizeEstimator.estimate(page.getContent()));
+
+        interning.intern(page("2").getContent().get(0).getAttributes());
+        interning.intern(page("3").getContent().get(0).getAttributes());
+        cache.put(key("b"), 1, page("4"));
+
+        var fullBytes = ObjectSizeEstimator.estimate(page.getContent()) + ObjectSizeEstimator.estimate(page("4").getContent());
+        assertThat(cache.getTotalBytes()).isEqualTo(fullBytes);
+    }
+
+    private static SearchCacheService.Key key(String keyword) {
+        return new SearchCacheService.Key(keyword, PageRequest.of(0, 10));
+    }
+
+    private static PageImpl<Product> page(String id) {
+        var attributes = new ArrayList<Attribute>();
+        for (int i = 0; i < 20; i++) {
+            attributes.add(new Attribute("key-" + id + "-" + i, "value-" + id + "-" + i));
+        }
+        return new PageImpl<>(List.of(Product.builder().id(id).description("product " + id).attributes(attributes).build()));
+    }
+}
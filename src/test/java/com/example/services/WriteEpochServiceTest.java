@@ -0,0 +1,70 @@
+package com.example.services;
+
+import com.example.configurations.SearchCachePropertiesConfig;
+import com.example.domains.WriteEpoch;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteEpochServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final WriteEpochService writeEpoch = new WriteEpochService(mongoTemplate, new SearchCachePropertiesConfig());
+
+    @Test
+    void localWriteMovesTheEpochAndTheSharedCounter() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WriteEpoch.class)))
+                .thenReturn(new WriteEpoch("products", 7L));
+
+        long before = writeEpoch.current();
+        writeEpoch.bump();
+
+        assertThat(writeEpoch.current()).isGreaterThan(before);
+    }
+
+    @Test
+    void ownWriteIsNotCountedTwiceOnRefresh() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WriteEpoch.class)))
+                .thenReturn(new WriteEpoch("products", 7L));
+        when(mongoTemplate.findById("products", WriteEpoch.class)).thenReturn(new WriteEpoch("products", 7L));
+
+        writeEpoch.bump();
+        long afterWrite = writeEpoch.current();
+        writeEpoch.refresh();
+
+        assertThat(writeEpoch.current()).isEqualTo(afterWrite);
+    }
+
+    @Test
+    void writeOnAnotherInstanceInvalidatesLocally() {
+        when(mongoTemplate.findById("products", WriteEpoch.class))
+                .thenReturn(new WriteEpoch("products", 3L))
+                .thenReturn(new WriteEpoch("products", 4L));
+
+        writeEpoch.refresh();
+        long seen = writeEpoch.current();
+        writeEpoch.refresh();
+
+        assertThat(writeEpoch.current()).isGreaterThan(seen);
+    }
+
+    @Test
+    void unreachableSharedCounterStillInvalidatesLocally() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WriteEpoch.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        long before = writeEpoch.current();
+        writeEpoch.bump();
+
+        assertThat(writeEpoch.current()).isGreaterThan(before);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.utils;
+
+import com.example.exceptions.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void unboundedDeadlineNeverExpires() {
+        assertThat(RequestDeadline.current().remaining()).isEmpty();
+        assertThat(RequestDeadline.current().check()).isZero();
+    }
+
+    @Test
+    void expiredDeadlineFailsTheCheck() throws InterruptedException {
+        RequestDeadline.start(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> RequestDeadline.current().check())
+                .isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void cancelledDeadlineFailsTheCheck() {
+        var deadline = RequestDeadline.start(Duration.ofSeconds(5));
+        deadline.cancel();
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThatThrownBy(deadline::check).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void detachedDeadlineKeepsTheLimitButNotTheCancellation() {
+        var deadline = RequestDeadline.start(Duration.ofSeconds(5));
+        var detached = RequestDeadline.detach(deadline);
+        deadline.cancel();
+
+        assertThat(detached.isExpired()).isFalse();
+        assertThat(detached.remaining()).hasValueSatisfying(remaining -> assertThat(remaining).isLessThanOrEqualTo(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void extendingOnlyMovesTheDeadlineLater() {
+        var detached = RequestDeadline.detach(RequestDeadline.start(Duration.ofSeconds(1)));
+
+        detached.extendTo(RequestDeadline.start(Duration.ofMillis(10)));
+        assertThat(detached.remaining().orElseThrow()).isGreaterThan(Duration.ofMillis(500));
+
+        detached.extendTo(RequestDeadline.start(Duration.ofSeconds(20)));
+        assertThat(detached.remaining().orElseThrow()).isGreaterThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void extendingToAnUnboundedCallerLiftsTheDeadline() {
+        var detached = RequestDeadline.detach(RequestDeadline.start(Duration.ofSeconds(1)));
+        RequestDeadline.clear();
+
+        detached.extendTo(RequestDeadline.current());
+
+        assertThat(detached.remaining()).isEmpty();
+    }
+}
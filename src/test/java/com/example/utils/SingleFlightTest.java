@@ -0,0 +1,167 @@
+package com.example.utils;
+
+import com.example.exceptions.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var leader = CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "value";
+            }), executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            var followers = new ArrayList<CompletableFuture<String>>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                }), executor));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            for (var follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedFlightIsNotReused() {
+        assertThat(flights.execute("key", () -> "first")).isEqualTo("first");
+        assertThat(flights.execute("key", () -> "second")).isEqualTo("second");
+    }
+
+    @Test
+    void failureReachesTheLeaderAndIsNotCached() {
+        assertThatThrownBy(() -> flights.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(flights.execute("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void cancelledLeaderDoesNotFailItsFollowers() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var leaderDeadline = new CompletableFuture<RequestDeadline>();
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var leader = CompletableFuture.supplyAsync(() -> {
+                leaderDeadline.complete(RequestDeadline.start(Duration.ofSeconds(5)));
+                return flights.execute("key", () -> {
+                    started.countDown();
+                    await(release);
+                    RequestDeadline.current().check();
+                    return "value";
+                });
+            }, executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var follower = CompletableFuture.supplyAsync(() -> {
+                RequestDeadline.start(Duration.ofSeconds(5));
+                return flights.execute("key", () -> "other");
+            }, executor);
+            Thread.sleep(100);
+
+            leaderDeadline.get().cancel();
+            release.countDown();
+
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void followerGivesUpAtItsOwnDeadline() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var leader = CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "value";
+            }), executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            var follower = CompletableFuture.supplyAsync(() -> {
+                RequestDeadline.start(Duration.ofMillis(100));
+                return flights.execute("key", () -> "other");
+            }, executor);
+
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loaderRunsUntilTheLatestParticipantDeadline() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var leader = CompletableFuture.supplyAsync(() -> {
+                RequestDeadline.start(Duration.ofMillis(200));
+                return flights.execute("key", () -> {
+                    started.countDown();
+                    await(release);
+                    RequestDeadline.current().check();
+                    return "value";
+                });
+            }, executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var follower = CompletableFuture.supplyAsync(() -> {
+                RequestDeadline.start(Duration.ofSeconds(5));
+                return flights.execute("key", () -> "other");
+            }, executor);
+            Thread.sleep(400);
+            release.countDown();
+
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}